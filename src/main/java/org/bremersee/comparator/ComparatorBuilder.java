@@ -16,9 +16,9 @@
 
 package org.bremersee.comparator;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -149,12 +149,7 @@ public interface ComparatorBuilder {
    */
   default ComparatorBuilder add(SortOrder field, ValueExtractor valueExtractor) {
     return Optional.ofNullable(field)
-        .map(sortOrder -> add(
-            sortOrder.getField(),
-            sortOrder.isAsc(),
-            sortOrder.isIgnoreCase(),
-            sortOrder.isNullIsFirst(),
-            valueExtractor))
+        .map(sortOrder -> add(new ValueComparator(sortOrder, valueExtractor)))
         .orElse(this);
   }
 
@@ -261,12 +256,32 @@ public interface ComparatorBuilder {
   <T> Comparator<T> build();
 
   /**
-   * The default comparator builder.
+   * Builds a comparator, that is specialized for the given element type. The fields and getters of
+   * the value comparators, that are added with a field name or path or with a sort order, are
+   * resolved against the given type once and compiled (see {@link CompiledValueExtractor}). The
+   * null handling and the direction are decided when the comparator is built. Comparators, that
+   * cannot be specialized (for example because of a custom value extractor), are used as they are.
+   *
+   * <p>The specialized comparator returns the same results as the comparator of {@link #build()}.
+   * The default implementation just calls {@link #build()}.
+   *
+   * @param <T> the type parameter
+   * @param type the element type (can be {@code null} - then the comparator is not specialized)
+   * @return the comparator
+   */
+  default <T> Comparator<T> build(Class<T> type) {
+    return build();
+  }
+
+  /**
+   * The default comparator builder. On {@link #build()} value comparators with the default value
+   * extractor, whose field paths have common prefixes, are combined into a {@link
+   * FieldPathTrieComparator}, that resolves the common intermediate objects only once.
    */
   class DefaultComparatorBuilder implements ComparatorBuilder {
 
     @SuppressWarnings("rawtypes")
-    private final List<Comparator> comparatorChain = new LinkedList<>();
+    private final List<Comparator> comparatorChain = new ArrayList<>();
 
     @Override
     public ComparatorBuilder add(Comparator<?> comparator) {
@@ -278,7 +293,55 @@ public interface ComparatorBuilder {
     @Override
     public <T> Comparator<T> build() {
       //noinspection unchecked
-      return (Comparator<T>) new ComparatorChain(comparatorChain);
+      return (Comparator<T>) new ComparatorChain(compileFieldPathTries(comparatorChain));
+    }
+
+    /**
+     * Replaces each sequence of value comparators, whose field paths have common prefixes, by a
+     * {@link FieldPathTrieComparator}.
+     *
+     * @param comparators the comparators
+     * @return the comparators with field path trie comparators
+     */
+    @SuppressWarnings("rawtypes")
+    private static List<Comparator> compileFieldPathTries(List<Comparator> comparators) {
+      List<Comparator> result = new ArrayList<>();
+      List<ValueComparator> sequence = new ArrayList<>();
+      for (Comparator comparator : comparators) {
+        if (FieldPathTrieComparator.isTrieable(comparator)) {
+          sequence.add((ValueComparator) comparator);
+        } else {
+          addSequence(result, sequence);
+          result.add(comparator);
+        }
+      }
+      addSequence(result, sequence);
+      return result;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void addSequence(List<Comparator> result, List<ValueComparator> sequence) {
+      if (FieldPathTrieComparator.isApplicable(sequence)) {
+        result.add(new FieldPathTrieComparator(sequence));
+      } else {
+        result.addAll(sequence);
+      }
+      sequence.clear();
+    }
+
+    @Override
+    public <T> Comparator<T> build(Class<T> type) {
+      if (type == null) {
+        return build();
+      }
+      @SuppressWarnings("rawtypes")
+      List<Comparator> comparators = new ArrayList<>();
+      for (Comparator<?> comparator : comparatorChain) {
+        Optional<Comparator<T>> compiled = TypedComparatorCompiler.compile(type, comparator);
+        comparators.add(compiled.isPresent() ? compiled.get() : comparator);
+      }
+      //noinspection unchecked
+      return (Comparator<T>) new ComparatorChain(comparators);
     }
   }
 
@@ -16,8 +16,8 @@
 
 package org.bremersee.comparator;
 
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
 import lombok.ToString;
 
@@ -25,13 +25,26 @@ import lombok.ToString;
  * The comparator chain has a list of comparators. Beginning with the first each comparator is
  * invoked as long the previous one returns zero on {@link Comparator#compare(Object, Object)}.
  *
+ * <p>The comparators are kept in an array. Nested comparator chains, that are not empty, are
+ * flattened into this chain, when it is created; this doesn't change the order. Chains with one,
+ * two or three comparators call them directly without a loop.
+ *
  * @author Christian Bremer
  */
 @SuppressWarnings({"rawtypes", "SameNameButDifferent"})
 @ToString
 public class ComparatorChain implements Comparator<Object> {
 
-  private final List<Comparator> comparators;
+  private final Comparator[] comparators;
+
+  @ToString.Exclude
+  private final Comparator first;
+
+  @ToString.Exclude
+  private final Comparator second;
+
+  @ToString.Exclude
+  private final Comparator third;
 
   /**
    * Instantiates a new comparator chain.
@@ -39,23 +52,54 @@ public class ComparatorChain implements Comparator<Object> {
    * @param comparators the comparators (can be {@code null} or empty)
    */
   public ComparatorChain(List<Comparator> comparators) {
-    this.comparators = comparators != null ? comparators : new LinkedList<>();
+    List<Comparator> flattened = new ArrayList<>();
+    if (comparators != null) {
+      for (Comparator comparator : comparators) {
+        if (comparator != null && comparator.getClass() == ComparatorChain.class
+            && ((ComparatorChain) comparator).comparators.length > 0) {
+          flattened.addAll(List.of(((ComparatorChain) comparator).comparators));
+        } else if (comparator != null) {
+          flattened.add(comparator);
+        }
+      }
+    }
+    this.comparators = flattened.toArray(new Comparator[0]);
+    this.first = this.comparators.length > 0 ? this.comparators[0] : null;
+    this.second = this.comparators.length > 1 ? this.comparators[1] : null;
+    this.third = this.comparators.length > 2 ? this.comparators[2] : null;
   }
 
+  @SuppressWarnings("unchecked")
   @Override
   public int compare(Object o1, Object o2) {
-    boolean wasCompared = false;
-    for (Comparator comparator : comparators) {
-      wasCompared = true;
-      //noinspection unchecked
-      int result = comparator.compare(o1, o2);
-      if (result != 0) {
-        return result;
-      }
-    }
-    if (wasCompared) {
-      return 0;
+    int result;
+    switch (comparators.length) {
+      case 0:
+        return compareComparables(o1, o2);
+      case 1:
+        return first.compare(o1, o2);
+      case 2:
+        result = first.compare(o1, o2);
+        return result != 0 ? result : second.compare(o1, o2);
+      case 3:
+        result = first.compare(o1, o2);
+        if (result != 0) {
+          return result;
+        }
+        result = second.compare(o1, o2);
+        return result != 0 ? result : third.compare(o1, o2);
+      default:
+        for (int i = 0; i < comparators.length; i++) {
+          result = comparators[i].compare(o1, o2);
+          if (result != 0) {
+            return result;
+          }
+        }
+        return 0;
     }
+  }
+
+  private static int compareComparables(Object o1, Object o2) {
     if (o1 instanceof Comparable && o2 instanceof Comparable) {
       //noinspection unchecked
       return ((Comparable) o1).compareTo(o2);
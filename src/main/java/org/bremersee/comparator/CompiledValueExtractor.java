@@ -0,0 +1,188 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * The compiled value extractor supports the same field names and paths as the {@link
+ * DefaultValueExtractor}. But instead of invoking the found field or method by reflection on every
+ * call, it compiles them the first time a class is seen: a method is turned into a {@link Function}
+ * that is generated by the {@link LambdaMetafactory}, a field into a {@link MethodHandle}. After
+ * that the value is read at nearly the speed of a direct call.
+ *
+ * <p>If a field or method cannot be compiled (for example because the package of the class is not
+ * opened to this library), the value is read by reflection as the {@link DefaultValueExtractor}
+ * does.
+ *
+ * <p>Please note, that an exception, that is thrown by a compiled method, is not wrapped into a
+ * {@link ValueExtractorException}.
+ *
+ * @author Christian Bremer
+ */
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class CompiledValueExtractor extends DefaultValueExtractor {
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final ClassValue<Map<String, Optional<Function<Object, Object>>>> compiledAccessors =
+      new ClassValue<>() {
+        @Override
+        protected Map<String, Optional<Function<Object, Object>>> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  /**
+   * Instantiates a new compiled value extractor that will throw {@link ValueExtractorException},
+   * if the given field cannot be found.
+   */
+  public CompiledValueExtractor() {
+    super();
+  }
+
+  /**
+   * Instantiates a new compiled value extractor.
+   *
+   * @param throwingException if {@code true} and the given field cannot be found, {@link
+   *     ValueExtractorException} will be thrown; otherwise {@code null} will be returned
+   */
+  public CompiledValueExtractor(boolean throwingException) {
+    super(throwingException);
+  }
+
+  @Override
+  protected Object findFieldValue(Object obj, String fieldName) {
+    Class<?> clazz = obj.getClass();
+    Map<String, Optional<Function<Object, Object>>> classAccessors = compiledAccessors.get(clazz);
+    Optional<Function<Object, Object>> accessor = classAccessors.get(fieldName);
+    if (accessor == null) {
+      accessor = classAccessors.computeIfAbsent(fieldName, name -> findAccessor(clazz, name)
+          .flatMap(CompiledValueExtractor::compile));
+    }
+    return accessor.isPresent()
+        ? accessor.get().apply(obj)
+        : super.findFieldValue(obj, fieldName);
+  }
+
+  /**
+   * Compiles the given field or method.
+   *
+   * @param accessor the field or method
+   * @return the compiled accessor; empty, if it cannot be compiled
+   */
+  static Optional<Function<Object, Object>> compile(AccessibleObject accessor) {
+    try {
+      if (accessor instanceof Method) {
+        return Optional.of(compile((Method) accessor));
+      }
+      if (accessor instanceof Field) {
+        return Optional.of(compile((Field) accessor));
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // the accessor will be invoked by reflection
+    }
+    return Optional.empty();
+  }
+
+  private static Function<Object, Object> compile(Method method)
+      throws ReflectiveOperationException {
+
+    if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() > 0) {
+      throw new IllegalAccessException("Method '" + method.getName() + "' is not a getter.");
+    }
+    MethodHandles.Lookup lookup = MethodHandles
+        .privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+    MethodHandle handle = lookup.unreflect(method);
+    if (method.getReturnType() == void.class) {
+      return new MethodHandleAccessor(handle);
+    }
+    try {
+      CallSite callSite = LambdaMetafactory.metafactory(
+          lookup,
+          "apply",
+          MethodType.methodType(Function.class),
+          MethodType.methodType(Object.class, Object.class),
+          handle,
+          handle.type().wrap());
+      //noinspection unchecked
+      return (Function<Object, Object>) callSite.getTarget().invoke();
+
+    } catch (LambdaConversionException e) {
+      return new MethodHandleAccessor(handle);
+    } catch (Throwable t) {
+      throw new IllegalStateException("Creating accessor of method '" + method.getName()
+          + "' failed.", t);
+    }
+  }
+
+  private static Function<Object, Object> compile(Field field)
+      throws ReflectiveOperationException {
+
+    if (Modifier.isStatic(field.getModifiers())) {
+      throw new IllegalAccessException("Field '" + field.getName() + "' is static.");
+    }
+    MethodHandles.Lookup lookup = MethodHandles
+        .privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+    return new MethodHandleAccessor(lookup.unreflectGetter(field));
+  }
+
+  /**
+   * The method handle accessor.
+   */
+  private static class MethodHandleAccessor implements Function<Object, Object> {
+
+    private final MethodHandle handle;
+
+    /**
+     * Instantiates a new method handle accessor.
+     *
+     * @param handle the method handle with one parameter (the object)
+     */
+    MethodHandleAccessor(MethodHandle handle) {
+      this.handle = handle.asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    @Override
+    public Object apply(Object obj) {
+      try {
+        return handle.invokeExact(obj);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ValueExtractorException("Invoking method handle failed.", t);
+      }
+    }
+  }
+
+}
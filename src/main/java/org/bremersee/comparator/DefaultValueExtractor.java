@@ -16,9 +16,13 @@
 
 package org.bremersee.comparator;
 
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -29,14 +33,53 @@ import lombok.ToString;
  * ValueExtractor#getPossibleMethodNames(String)} (for example {@code toString}) or a path of field
  * names separated by dots (.), for example {@code person.firstName}.
  *
+ * <p>The resolved field or method of a field name is cached per class, so the class hierarchy is
+ * only searched once for each class and field name. Field names, that cannot be found, are cached,
+ * too, but only up to {@value #MAXIMUM_MISSING_NAMES} names per class, because they may come from
+ * requests (like an unknown {@code sort} parameter), so that they must not fill the memory.
+ *
  * @author Christian Bremer
  */
 @ToString
 @EqualsAndHashCode
 public class DefaultValueExtractor implements ValueExtractor {
 
+  /**
+   * The shared default value extractor, that is used by the comparators of this library, if no
+   * value extractor is specified.
+   */
+  static final DefaultValueExtractor DEFAULT = new DefaultValueExtractor();
+
+  /**
+   * The maximum number of field names per class, that cannot be found and are cached.
+   */
+  static final int MAXIMUM_MISSING_NAMES = 64;
+
+  private static final ClassValue<Boolean> PATH_EXTRACTORS = new ClassValue<>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      try {
+        Class<?> declaringClass = type.getMethod("findValue", Object.class, String.class)
+            .getDeclaringClass();
+        return declaringClass == DefaultValueExtractor.class
+            || declaringClass == MemoizingValueExtractor.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+
   private final boolean throwingException;
 
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final ClassValue<Accessors> accessors = new ClassValue<>() {
+    @Override
+    protected Accessors computeValue(Class<?> type) {
+      return new Accessors();
+    }
+  };
+
   /**
    * Instantiates a new default value extractor that will throw {@link ValueExtractorException}, if
    * the given field cannot be found.
@@ -57,48 +100,109 @@ public class DefaultValueExtractor implements ValueExtractor {
 
   @Override
   public Object findValue(Object obj, String fieldPath) {
-    final String fieldIdentifier = trimFieldPath(fieldPath);
-    if (obj == null || fieldIdentifier == null || fieldIdentifier.isEmpty()) {
-      return obj;
-    }
+    return findValueByPath(obj, FieldPath.of(fieldPath));
+  }
 
-    final int index = fieldIdentifier.indexOf('.');
-    final String fieldName = index < 0
-        ? fieldIdentifier
-        : fieldIdentifier.substring(0, index).trim();
-    Object value;
-    Optional<Field> field = findField(obj.getClass(), fieldName);
-    if (field.isPresent()) {
-      value = invoke(field.get(), obj);
-    } else {
-      Optional<Method> method = findMethod(obj.getClass(), fieldName);
-      if (method.isPresent()) {
-        value = invoke(method.get(), obj);
-      } else if (throwingException) {
-        throw new ValueExtractorException(
-            "Field [" + fieldName + "] was not found on object [" + obj + "].");
-      } else {
-        value = null;
+  @Override
+  public Object findValueByPath(Object obj, FieldPath fieldPath) {
+    Object value = obj;
+    if (fieldPath != null) {
+      for (int i = 0, size = fieldPath.size(); i < size && value != null; i++) {
+        value = findFieldValue(value, fieldPath.getSegment(i));
       }
     }
+    return value;
+  }
+
+  /**
+   * Find the value of the given field path with the given value extractor. The parsed field path
+   * is only passed to the value extractors of this library (see {@link
+   * ValueExtractor#findValueByPath(Object, FieldPath)}), any other value extractor is called with
+   * the source of the field path.
+   *
+   * @param valueExtractor the value extractor
+   * @param obj the object
+   * @param fieldPath the field path
+   * @return the value
+   */
+  static Object extractValue(ValueExtractor valueExtractor, Object obj, FieldPath fieldPath) {
+    return PATH_EXTRACTORS.get(valueExtractor.getClass())
+        ? valueExtractor.findValueByPath(obj, fieldPath)
+        : valueExtractor.findValue(obj, fieldPath != null ? fieldPath.getSource() : null);
+  }
 
-    return index < 0 ? value : findValue(value, fieldIdentifier.substring(index + 1));
+  /**
+   * Returns {@code true}, because the found fields and methods are cached in concurrent maps.
+   *
+   * @return {@code true}
+   */
+  @Override
+  public boolean isThreadSafe() {
+    return true;
   }
 
-  private static String trimFieldPath(String field) {
-    if (field == null) {
-      return null;
+  /**
+   * Find the value of the given field name (not a path) of the given object.
+   *
+   * @param obj the object (cannot be {@code null})
+   * @param fieldName the field name
+   * @return the value
+   * @throws ValueExtractorException if no field nor method is found and this extractor is
+   *     throwing exceptions
+   */
+  protected Object findFieldValue(Object obj, String fieldName) {
+    AccessibleObject accessor = findAccessor(obj.getClass(), fieldName).orElse(null);
+    if (accessor instanceof Field) {
+      return invoke((Field) accessor, obj);
     }
-    String tmp = field
-        .replace("..", ".")
-        .trim();
-    while (tmp.startsWith(".")) {
-      tmp = tmp.substring(1).trim();
+    if (accessor instanceof Method) {
+      return invoke((Method) accessor, obj);
     }
-    while (tmp.endsWith(".")) {
-      tmp = tmp.substring(0, tmp.length() - 1).trim();
+    if (throwingException) {
+      throw new ValueExtractorException(
+          "Field [" + fieldName + "] was not found on object [" + obj + "].");
     }
-    return tmp;
+    return null;
+  }
+
+  /**
+   * Find the field or the method of the given class, that provides the value of the given field
+   * name. A field takes precedence over a method. The result is cached, so that {@link
+   * #findField(Class, String)} and {@link #findMethod(Class, String)} are only called once for
+   * each class and field name.
+   *
+   * @param clazz the class
+   * @param name the field name
+   * @return the field or the method
+   */
+  protected Optional<AccessibleObject> findAccessor(Class<?> clazz, String name) {
+    Accessors classAccessors = accessors.get(clazz);
+    AccessibleObject accessor = classAccessors.found.get(name);
+    if (accessor != null) {
+      return Optional.of(accessor);
+    }
+    if (classAccessors.missing.contains(name)) {
+      return Optional.empty();
+    }
+    Optional<AccessibleObject> resolved = findField(clazz, name)
+        .<AccessibleObject>map(field -> field)
+        .or(() -> findMethod(clazz, name));
+    if (resolved.isPresent()) {
+      classAccessors.found.putIfAbsent(name, resolved.get());
+    } else if (classAccessors.missing.size() < MAXIMUM_MISSING_NAMES) {
+      classAccessors.missing.add(name);
+    }
+    return resolved;
+  }
+
+  /**
+   * The cached accessors of a class.
+   */
+  private static final class Accessors {
+
+    private final Map<String, AccessibleObject> found = new ConcurrentHashMap<>();
+
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
   }
 
 }
@@ -32,6 +32,9 @@ public class DelegatingComparator implements Comparator<Object> {
 
   private final String field;
 
+  @ToString.Exclude
+  private final FieldPath fieldPath;
+
   @SuppressWarnings("rawtypes")
   private final Comparator comparator;
 
@@ -60,14 +63,17 @@ public class DelegatingComparator implements Comparator<Object> {
       throw new IllegalArgumentException("Comparator must not be null.");
     }
     this.field = field;
+    this.fieldPath = FieldPath.of(field);
     this.comparator = comparator;
-    this.valueExtractor = valueExtractor != null ? valueExtractor : new DefaultValueExtractor();
+    this.valueExtractor = valueExtractor != null
+        ? valueExtractor
+        : DefaultValueExtractor.DEFAULT;
   }
 
   @Override
   public int compare(Object o1, Object o2) {
-    final Object v1 = valueExtractor.findValue(o1, field);
-    final Object v2 = valueExtractor.findValue(o2, field);
+    final Object v1 = DefaultValueExtractor.extractValue(valueExtractor, o1, fieldPath);
+    final Object v2 = DefaultValueExtractor.extractValue(valueExtractor, o2, fieldPath);
     //noinspection unchecked
     return comparator.compare(v1, v2);
   }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+
+/**
+ * The field path is the parsed and normalized form of a field name or path as described in {@link
+ * org.bremersee.comparator.model.SortOrder}. It is created once, for example when a comparator is
+ * built, so that the comparison doesn't have to split the path again and again.
+ *
+ * <p>The segments of the path are separated by dots (.). Each segment is trimmed and empty
+ * segments are removed, so {@code " .person..firstName. "} is the same as {@code
+ * person.firstName}.
+ *
+ * @author Christian Bremer
+ */
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public final class FieldPath {
+
+  private static final FieldPath EMPTY = new FieldPath(null, new String[0]);
+
+  private final String source;
+
+  private final String[] segments;
+
+  @EqualsAndHashCode.Include
+  private final String path;
+
+  private FieldPath(String source, String[] segments) {
+    this.source = source;
+    this.segments = segments;
+    this.path = String.join(".", segments);
+  }
+
+  /**
+   * Creates a field path from the given field name or path.
+   *
+   * @param fieldPath the field name or path (can be {@code null})
+   * @return the field path
+   */
+  public static FieldPath of(String fieldPath) {
+    if (fieldPath == null) {
+      return EMPTY;
+    }
+    List<String> segments = new ArrayList<>();
+    int from = 0;
+    int length = fieldPath.length();
+    while (from <= length) {
+      int index = fieldPath.indexOf('.', from);
+      int to = index < 0 ? length : index;
+      String segment = fieldPath.substring(from, to).trim();
+      if (!segment.isEmpty()) {
+        segments.add(segment);
+      }
+      from = to + 1;
+    }
+    return new FieldPath(fieldPath, segments.toArray(new String[0]));
+  }
+
+  /**
+   * Gets the field name or path, this field path was created from.
+   *
+   * @return the source (can be {@code null})
+   */
+  public String getSource() {
+    return source;
+  }
+
+  /**
+   * Checks whether this path has no segments. Then the value of an object is the object itself.
+   *
+   * @return {@code true} if this path has no segments, otherwise {@code false}
+   */
+  public boolean isEmpty() {
+    return segments.length == 0;
+  }
+
+  /**
+   * Gets the number of segments.
+   *
+   * @return the number of segments
+   */
+  public int size() {
+    return segments.length;
+  }
+
+  /**
+   * Gets the segment (the field name) at the given index.
+   *
+   * @param index the index
+   * @return the segment
+   */
+  public String getSegment(int index) {
+    return segments[index];
+  }
+
+  /**
+   * Gets the segments.
+   *
+   * @return the unmodifiable list of segments
+   */
+  public List<String> getSegments() {
+    return List.of(segments);
+  }
+
+  /**
+   * Returns the normalized path, the segments are joined with a dot (.).
+   *
+   * @return the normalized path
+   */
+  @Override
+  public String toString() {
+    return path;
+  }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.ToString;
+
+/**
+ * The field path trie comparator replaces a sequence of value comparators, whose field paths have
+ * common prefixes (like {@code customer.address.city}, {@code customer.address.zip} and {@code
+ * customer.name}). The field paths are compiled into a prefix trie, so on each comparison an
+ * intermediate object (like {@code customer} or {@code customer.address}) is resolved only once
+ * for each of the two compared objects. The values are still resolved lazily in the order of the
+ * value comparators: the remaining field paths are not resolved, if a previous value comparator
+ * already decides the order. The result is the same as the result of the value comparators.
+ *
+ * <p>The comparators must use the same {@link DefaultValueExtractor}, because it resolves a field
+ * path segment by segment.
+ *
+ * <p>The resolved values are kept in arrays, that are reused by all comparisons of a thread (of
+ * all field path trie comparators), so a comparison does not allocate anything (unless it is nested
+ * into another comparison or it has more trie nodes than all comparisons of the thread before).
+ * The arrays are cleared after each comparison.
+ *
+ * @author Christian Bremer
+ */
+@ToString
+class FieldPathTrieComparator implements Comparator<Object> {
+
+  private static final Object UNRESOLVED = new Object();
+
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal
+      .withInitial(() -> new Scratch(0));
+
+  private final DefaultValueExtractor valueExtractor;
+
+  private final ValueComparator[] comparators;
+
+  @ToString.Exclude
+  private final int[] parents;
+
+  @ToString.Exclude
+  private final String[] segments;
+
+  @ToString.Exclude
+  private final int[] leaves;
+
+  /**
+   * Instantiates a new field path trie comparator.
+   *
+   * @param comparators the value comparators, that use the same default value extractor
+   */
+  FieldPathTrieComparator(List<ValueComparator> comparators) {
+    this.comparators = comparators.toArray(new ValueComparator[0]);
+    this.valueExtractor = (DefaultValueExtractor) this.comparators[0].getValueExtractor();
+    List<Integer> parentList = new ArrayList<>();
+    List<String> segmentList = new ArrayList<>();
+    parentList.add(-1);
+    segmentList.add(null);
+    this.leaves = new int[this.comparators.length];
+    for (int i = 0; i < this.comparators.length; i++) {
+      FieldPath fieldPath = this.comparators[i].getFieldPath();
+      int node = 0;
+      for (int j = 0; j < fieldPath.size(); j++) {
+        node = findOrAddChild(parentList, segmentList, node, fieldPath.getSegment(j));
+      }
+      leaves[i] = node;
+    }
+    this.parents = parentList.stream().mapToInt(Integer::intValue).toArray();
+    this.segments = segmentList.toArray(new String[0]);
+  }
+
+  private static int findOrAddChild(
+      List<Integer> parents,
+      List<String> segments,
+      int parent,
+      String segment) {
+
+    for (int i = 1; i < parents.size(); i++) {
+      if (parents.get(i) == parent && segment.equals(segments.get(i))) {
+        return i;
+      }
+    }
+    parents.add(parent);
+    segments.add(segment);
+    return parents.size() - 1;
+  }
+
+  /**
+   * Determines whether the given value comparators can be replaced by a field path trie
+   * comparator with a benefit: they must use the same default value extractor and at least two
+   * field paths must have a common prefix.
+   *
+   * @param comparators the value comparators
+   * @return {@code true}, if they can be replaced, otherwise {@code false}
+   */
+  static boolean isApplicable(List<ValueComparator> comparators) {
+    if (comparators.size() < 2) {
+      return false;
+    }
+    ValueExtractor first = comparators.get(0).getValueExtractor();
+    Set<String> nodes = new HashSet<>();
+    int segmentCount = 0;
+    for (ValueComparator comparator : comparators) {
+      if (!isTrieable(comparator) || !first.equals(comparator.getValueExtractor())) {
+        return false;
+      }
+      FieldPath fieldPath = comparator.getFieldPath();
+      StringBuilder prefix = new StringBuilder();
+      for (int i = 0; i < fieldPath.size(); i++) {
+        nodes.add(prefix.append('.').append(fieldPath.getSegment(i)).toString());
+      }
+      segmentCount += fieldPath.size();
+    }
+    return nodes.size() < segmentCount;
+  }
+
+  /**
+   * Determines whether the given comparator is a plain value comparator with a default value
+   * extractor.
+   *
+   * @param comparator the comparator
+   * @return {@code true}, if the comparator can be a part of a field path trie comparator
+   */
+  static boolean isTrieable(Comparator<?> comparator) {
+    return comparator != null
+        && comparator.getClass() == ValueComparator.class
+        && ((ValueComparator) comparator).getValueExtractor().getClass()
+        == DefaultValueExtractor.class;
+  }
+
+  @Override
+  public int compare(Object o1, Object o2) {
+    int size = parents.length;
+    Scratch scratch = SCRATCH.get();
+    if (scratch.inUse) {
+      // a value compares itself with a field path trie comparator, so the scratch is busy
+      scratch = new Scratch(size);
+    } else if (scratch.values1.length < size) {
+      scratch = new Scratch(size);
+      SCRATCH.set(scratch);
+    }
+    scratch.inUse = true;
+    Object[] values1 = scratch.values1;
+    Object[] values2 = scratch.values2;
+    try {
+      values1[0] = o1;
+      values2[0] = o2;
+      for (int i = 0; i < comparators.length; i++) {
+        int result = comparators[i].compareValues(
+            resolve(values1, leaves[i]),
+            resolve(values2, leaves[i]));
+        if (result != 0) {
+          return result;
+        }
+      }
+      return 0;
+    } finally {
+      Arrays.fill(values1, 0, size, UNRESOLVED);
+      Arrays.fill(values2, 0, size, UNRESOLVED);
+      scratch.inUse = false;
+    }
+  }
+
+  private Object resolve(Object[] values, int node) {
+    Object value = values[node];
+    if (value == UNRESOLVED) {
+      Object parent = resolve(values, parents[node]);
+      value = parent != null ? valueExtractor.findFieldValue(parent, segments[node]) : null;
+      values[node] = value;
+    }
+    return value;
+  }
+
+  /**
+   * The resolved values of the trie nodes of the two compared objects. It is reused by the
+   * comparisons of a thread, so a comparison does not allocate anything. All values are {@code
+   * UNRESOLVED}, when it is not in use.
+   */
+  private static final class Scratch {
+
+    private final Object[] values1;
+
+    private final Object[] values2;
+
+    private boolean inUse;
+
+    /**
+     * Instantiates a new scratch.
+     *
+     * @param size the maximum number of trie nodes
+     */
+    Scratch(int size) {
+      values1 = new Object[size];
+      values2 = new Object[size];
+      Arrays.fill(values1, UNRESOLVED);
+      Arrays.fill(values2, UNRESOLVED);
+    }
+  }
+
+}
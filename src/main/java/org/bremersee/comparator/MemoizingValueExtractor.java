@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.util.Arrays;
+import lombok.ToString;
+
+/**
+ * The memoizing value extractor caches the values, that are found by another value extractor, by
+ * the identity of the object and the field path. It is meant to be used for one sort: a comparator
+ * chain with value comparators calls the value extractor about {@code 2 * log(n)} times for each
+ * element, which is expensive, if the values are computed by getters. With this value extractor
+ * each value is computed only once and the caller can still use {@link java.util.List#sort(
+ * java.util.Comparator)}:
+ * <pre>
+ * try (MemoizingValueExtractor valueExtractor = new MemoizingValueExtractor()) {
+ *   list.sort(ComparatorBuilder.newInstance()
+ *       .addAll(sortOrders, valueExtractor)
+ *       .build());
+ * }
+ * </pre>
+ *
+ * <p>The values are kept in an open addressing hash table, until this value extractor is closed.
+ * The table holds references to the objects, so it must not be used longer than needed. This value
+ * extractor is not thread safe.
+ *
+ * @author Christian Bremer
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class MemoizingValueExtractor implements ValueExtractor, AutoCloseable {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  @ToString.Include
+  private final ValueExtractor valueExtractor;
+
+  private Object[] objects;
+
+  private FieldPath[] fieldPaths;
+
+  private Object[] values;
+
+  @ToString.Include
+  private int size;
+
+  /**
+   * Instantiates a new memoizing value extractor, that caches the values of the default value
+   * extractor.
+   */
+  public MemoizingValueExtractor() {
+    this(null);
+  }
+
+  /**
+   * Instantiates a new memoizing value extractor.
+   *
+   * @param valueExtractor the value extractor, whose values are cached (can be {@code null}, then
+   *     a default will be used)
+   */
+  public MemoizingValueExtractor(ValueExtractor valueExtractor) {
+    this.valueExtractor = valueExtractor != null
+        ? valueExtractor
+        : DefaultValueExtractor.DEFAULT;
+    clear();
+  }
+
+  @Override
+  public Object findValue(Object obj, String fieldPath) {
+    return findValueByPath(obj, FieldPath.of(fieldPath));
+  }
+
+  @Override
+  public Object findValueByPath(Object obj, FieldPath fieldPath) {
+    if (obj == null || fieldPath == null) {
+      return DefaultValueExtractor.extractValue(valueExtractor, obj, fieldPath);
+    }
+    int mask = objects.length - 1;
+    int index = hash(obj, fieldPath) & mask;
+    while (objects[index] != null) {
+      if (objects[index] == obj
+          && (fieldPaths[index] == fieldPath || fieldPaths[index].equals(fieldPath))) {
+        return values[index];
+      }
+      index = (index + 1) & mask;
+    }
+    Object value = DefaultValueExtractor.extractValue(valueExtractor, obj, fieldPath);
+    objects[index] = obj;
+    fieldPaths[index] = fieldPath;
+    values[index] = value;
+    size++;
+    if (size > objects.length >>> 1) {
+      resize();
+    }
+    return value;
+  }
+
+  /**
+   * Gets the number of cached values.
+   *
+   * @return the number of cached values
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes all cached values.
+   */
+  public void clear() {
+    if (objects == null || objects.length > INITIAL_CAPACITY) {
+      objects = new Object[INITIAL_CAPACITY];
+      fieldPaths = new FieldPath[INITIAL_CAPACITY];
+      values = new Object[INITIAL_CAPACITY];
+    } else {
+      Arrays.fill(objects, null);
+      Arrays.fill(fieldPaths, null);
+      Arrays.fill(values, null);
+    }
+    size = 0;
+  }
+
+  /**
+   * Removes all cached values.
+   */
+  @Override
+  public void close() {
+    clear();
+  }
+
+  private static int hash(Object obj, FieldPath fieldPath) {
+    int hash = System.identityHashCode(obj) * 31 + fieldPath.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  private void resize() {
+    Object[] oldObjects = objects;
+    FieldPath[] oldFieldPaths = fieldPaths;
+    Object[] oldValues = values;
+    int capacity = oldObjects.length << 1;
+    objects = new Object[capacity];
+    fieldPaths = new FieldPath[capacity];
+    values = new Object[capacity];
+    int mask = capacity - 1;
+    for (int i = 0; i < oldObjects.length; i++) {
+      if (oldObjects[i] != null) {
+        int index = hash(oldObjects[i], oldFieldPaths[i]) & mask;
+        while (objects[index] != null) {
+          index = (index + 1) & mask;
+        }
+        objects[index] = oldObjects[i];
+        fieldPaths[index] = oldFieldPaths[i];
+        values[index] = oldValues[i];
+      }
+    }
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.util.Arrays;
+
+/**
+ * A stable most significant digit (MSD) radix sort of byte arrays, that are compared as unsigned
+ * bytes (for example the keys of the {@link SortKeyEncoder}). The keys are distributed byte by byte
+ * into buckets by a counting sort; small buckets are sorted by insertion sort. The keys are never
+ * compared as a whole, except in the insertion sort.
+ *
+ * @author Christian Bremer
+ */
+final class RadixSort {
+
+  /**
+   * Buckets, that are smaller than this, are sorted by insertion sort.
+   */
+  static final int INSERTION_SORT_THRESHOLD = 32;
+
+  private static final int RADIX = 256;
+
+  private RadixSort() {
+  }
+
+  /**
+   * Sorts the given keys. The keys themselves are not moved.
+   *
+   * @param keys the keys
+   * @return the indexes of the keys in sorted order
+   */
+  static int[] sort(byte[][] keys) {
+    int n = keys.length;
+    int[] order = new int[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    int[] aux = new int[n];
+    int[] count = new int[RADIX + 2];
+    // each task is a range [lo, hi) of the order and the depth (the index of the byte)
+    int[] stack = new int[3 * 64];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = n;
+    stack[top++] = 0;
+    while (top > 0) {
+      int depth = stack[--top];
+      int hi = stack[--top];
+      int lo = stack[--top];
+      if (hi - lo < INSERTION_SORT_THRESHOLD) {
+        insertionSort(keys, order, lo, hi, depth);
+        continue;
+      }
+      Arrays.fill(count, 0);
+      for (int i = lo; i < hi; i++) {
+        count[byteAt(keys[order[i]], depth) + 2]++;
+      }
+      for (int r = 0; r < RADIX + 1; r++) {
+        count[r + 1] += count[r];
+      }
+      for (int i = lo; i < hi; i++) {
+        aux[count[byteAt(keys[order[i]], depth) + 1]++] = order[i];
+      }
+      System.arraycopy(aux, 0, order, lo, hi - lo);
+      // count[r] is now the start of bucket r (the keys with byte r - 1 at the depth);
+      // bucket 0 contains the keys, that end before the depth, they are equal
+      for (int r = 1; r <= RADIX; r++) {
+        int from = lo + count[r - 1];
+        int to = lo + count[r];
+        if (to - from > 1) {
+          if (top + 3 > stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+          }
+          stack[top++] = from;
+          stack[top++] = to;
+          stack[top++] = depth + 1;
+        }
+      }
+    }
+    return order;
+  }
+
+  private static int byteAt(byte[] key, int depth) {
+    return depth < key.length ? key[depth] & 0xFF : -1;
+  }
+
+  private static void insertionSort(byte[][] keys, int[] order, int lo, int hi, int depth) {
+    for (int i = lo + 1; i < hi; i++) {
+      int index = order[i];
+      byte[] key = keys[index];
+      int j = i;
+      while (j > lo && compare(keys[order[j - 1]], key, depth) > 0) {
+        order[j] = order[j - 1];
+        j--;
+      }
+      order[j] = index;
+    }
+  }
+
+  private static int compare(byte[] key1, byte[] key2, int depth) {
+    return Arrays.compareUnsigned(
+        key1, Math.min(depth, key1.length), key1.length,
+        key2, Math.min(depth, key2.length), key2.length);
+  }
+
+}
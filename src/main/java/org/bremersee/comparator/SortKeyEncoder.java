@@ -0,0 +1,326 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.text.CollationKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.ToString;
+import org.bremersee.comparator.model.SortOrder;
+import org.bremersee.comparator.model.SortOrders;
+
+/**
+ * The sort key encoder encodes the values of the sort orders of an element into a single byte
+ * array, whose unsigned lexicographic order is the order of the comparator chain, that is built
+ * with {@code ComparatorBuilder.newInstance().addAll(sortOrders).build()}. So two elements can be
+ * compared with one call of {@link #compare(byte[], byte[])}.
+ *
+ * <p>Each value is encoded into a segment: a marker byte, that places {@code null} before or after
+ * all other values as the sort order demands, followed by the encoded value, whose bytes are
+ * inverted, if the order is descending. Supported are the values of {@link String}, {@link
+ * Boolean}, {@link Character}, {@link Byte}, {@link Short}, {@link Integer}, {@link Long}, {@link
+ * Float}, {@link Double}, enums, {@link UUID}, {@link Date}, {@link Instant}, {@link Duration},
+ * {@link LocalDate}, {@link LocalTime} and {@link LocalDateTime}. A string, that is compared case
+ * insensitive, is encoded with the case folding of {@link String#compareToIgnoreCase(String)}; it
+ * must not contain surrogate characters.
+ *
+ * <p>The values of one sort order must be of the same type, as the value comparator requires. If a
+ * value cannot be encoded, a {@link ComparatorException} is thrown, so that the caller can fall
+ * back to the comparator.
+ *
+ * @author Christian Bremer
+ */
+@ToString
+public class SortKeyEncoder {
+
+  private static final byte NULL_FIRST = 0x00;
+
+  private static final byte NOT_NULL = 0x01;
+
+  private static final byte NULL_LAST = 0x02;
+
+  private static final byte END_OF_STRING = 0x00;
+
+  private final ValueComparator[] comparators;
+
+  /**
+   * Instantiates a new sort key encoder.
+   *
+   * @param sortOrders the sort orders (can be {@code null}, then the element itself is encoded)
+   */
+  public SortKeyEncoder(SortOrders sortOrders) {
+    this(sortOrders, null);
+  }
+
+  /**
+   * Instantiates a new sort key encoder.
+   *
+   * @param sortOrders the sort orders (can be {@code null}, then the element itself is encoded)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   */
+  public SortKeyEncoder(SortOrders sortOrders, ValueExtractor valueExtractor) {
+    this(sortOrders != null ? sortOrders.getSortOrders() : null, valueExtractor);
+  }
+
+  /**
+   * Instantiates a new sort key encoder.
+   *
+   * @param sortOrders the sort orders (can be {@code null}, then the element itself is encoded)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   */
+  public SortKeyEncoder(
+      Collection<? extends SortOrder> sortOrders,
+      ValueExtractor valueExtractor) {
+
+    List<ValueComparator> list = new ArrayList<>();
+    if (sortOrders != null) {
+      sortOrders.stream()
+          .filter(Objects::nonNull)
+          .forEach(sortOrder -> list.add(new ValueComparator(sortOrder, valueExtractor)));
+    }
+    if (list.isEmpty()) {
+      list.add(new ValueComparator(null, true, false, false, valueExtractor));
+    }
+    this.comparators = list.toArray(new ValueComparator[0]);
+  }
+
+  /**
+   * Encodes the sort key of the given element.
+   *
+   * @param element the element
+   * @return the sort key
+   * @throws ComparatorException if a value cannot be encoded
+   */
+  public byte[] encode(Object element) {
+    KeyWriter writer = new KeyWriter();
+    for (ValueComparator comparator : comparators) {
+      Object value = DefaultValueExtractor.extractValue(
+          comparator.getValueExtractor(), element, comparator.getFieldPath());
+      writer.writeSegment(comparator, value);
+    }
+    return writer.toByteArray();
+  }
+
+  /**
+   * Compares two sort keys as unsigned bytes.
+   *
+   * @param key1 the first key
+   * @param key2 the second key
+   * @return the comparison result
+   */
+  public static int compare(byte[] key1, byte[] key2) {
+    return Arrays.compareUnsigned(key1, key2);
+  }
+
+  /**
+   * Gets the first eight bytes of the given key as long. The missing bytes of a shorter key are
+   * zero. If the prefixes of two keys are compared with {@link Long#compareUnsigned(long, long)},
+   * the result is the same as the result of {@link #compare(byte[], byte[])} or zero.
+   *
+   * @param key the key
+   * @return the prefix
+   */
+  public static long getPrefix(byte[] key) {
+    long prefix = 0L;
+    for (int i = 0; i < Long.BYTES; i++) {
+      prefix = (prefix << 8) | (i < key.length ? key[i] & 0xFF : 0);
+    }
+    return prefix;
+  }
+
+  /**
+   * The writer of a key.
+   */
+  private static class KeyWriter {
+
+    private byte[] bytes = new byte[32];
+
+    private int size;
+
+    /**
+     * Writes the segment of the given value.
+     *
+     * @param comparator the value comparator, that describes the order
+     * @param value the value
+     */
+    void writeSegment(ValueComparator comparator, Object value) {
+      if (value == null) {
+        write(comparator.isAsc() == comparator.isNullIsFirst() ? NULL_FIRST : NULL_LAST);
+        return;
+      }
+      write(NOT_NULL);
+      int start = size;
+      writeValue(comparator, value);
+      if (!comparator.isAsc()) {
+        for (int i = start; i < size; i++) {
+          bytes[i] = (byte) ~bytes[i];
+        }
+      }
+    }
+
+    private void writeValue(ValueComparator comparator, Object value) {
+      if (value instanceof String && comparator.getCollator() != null) {
+        writeCollationKey(
+            ThreadCollators.get(comparator.getCollator()).getCollationKey((String) value));
+      } else if (value instanceof String) {
+        writeString((String) value, comparator.isIgnoreCase());
+      } else if (value instanceof Integer) {
+        writeInt((Integer) value ^ Integer.MIN_VALUE);
+      } else if (value instanceof Long) {
+        writeLong((Long) value ^ Long.MIN_VALUE);
+      } else if (value instanceof Double) {
+        long bits = Double.doubleToLongBits((Double) value);
+        writeLong(bits ^ ((bits >> 63) | Long.MIN_VALUE));
+      } else if (value instanceof Float) {
+        int bits = Float.floatToIntBits((Float) value);
+        writeInt(bits ^ ((bits >> 31) | Integer.MIN_VALUE));
+      } else if (value instanceof Short) {
+        writeShort((Short) value ^ Short.MIN_VALUE);
+      } else if (value instanceof Byte) {
+        write((byte) ((Byte) value ^ Byte.MIN_VALUE));
+      } else if (value instanceof Character) {
+        writeShort((Character) value);
+      } else if (value instanceof Boolean) {
+        write((Boolean) value ? (byte) 1 : (byte) 0);
+      } else if (value instanceof Enum) {
+        writeInt(((Enum<?>) value).ordinal());
+      } else if (value instanceof UUID) {
+        writeLong(((UUID) value).getMostSignificantBits() ^ Long.MIN_VALUE);
+        writeLong(((UUID) value).getLeastSignificantBits() ^ Long.MIN_VALUE);
+      } else if (value instanceof Instant) {
+        writeLong(((Instant) value).getEpochSecond() ^ Long.MIN_VALUE);
+        writeInt(((Instant) value).getNano());
+      } else if (value instanceof Duration) {
+        writeLong(((Duration) value).getSeconds() ^ Long.MIN_VALUE);
+        writeInt(((Duration) value).getNano());
+      } else if (value instanceof LocalDate) {
+        writeLong(((LocalDate) value).toEpochDay() ^ Long.MIN_VALUE);
+      } else if (value instanceof LocalTime) {
+        writeLong(((LocalTime) value).toNanoOfDay());
+      } else if (value instanceof LocalDateTime) {
+        writeLong(((LocalDateTime) value).toLocalDate().toEpochDay() ^ Long.MIN_VALUE);
+        writeLong(((LocalDateTime) value).toLocalTime().toNanoOfDay());
+      } else if (value.getClass() == Date.class) {
+        writeLong(((Date) value).getTime() ^ Long.MIN_VALUE);
+      } else {
+        throw new ComparatorException("Value of field '" + comparator.getField()
+            + "' of type '" + value.getClass().getName() + "' cannot be encoded.");
+      }
+    }
+
+    /**
+     * Writes the characters of the string in an order preserving variable length encoding: a
+     * character below {@code 0x7F} takes one byte, a character below {@code 0x3F7F} two bytes,
+     * all others three bytes. The first byte is never zero, so the string is terminated by zero.
+     *
+     * @param value the string
+     * @param ignoreCase if {@code true}, the case is folded
+     */
+    private void writeString(String value, boolean ignoreCase) {
+      int length = value.length();
+      ensureCapacity(3 * length + 1);
+      for (int i = 0; i < length; i++) {
+        char c = value.charAt(i);
+        if (ignoreCase) {
+          if (Character.isSurrogate(c)) {
+            throw new ComparatorException(
+                "A string with surrogate characters cannot be encoded case insensitive.");
+          }
+          c = Character.toLowerCase(Character.toUpperCase(c));
+        }
+        if (c < 0x7F) {
+          bytes[size++] = (byte) (c + 1);
+        } else if (c < 0x3F7F) {
+          int d = c - 0x7F;
+          bytes[size++] = (byte) (0x80 | (d >>> 8));
+          bytes[size++] = (byte) d;
+        } else {
+          bytes[size++] = (byte) 0xFF;
+          bytes[size++] = (byte) (c >>> 8);
+          bytes[size++] = (byte) c;
+        }
+      }
+      bytes[size++] = END_OF_STRING;
+    }
+
+    /**
+     * Writes the collation key. The bytes of the key are the big endian characters of a string,
+     * whose order is the order of the keys; so they are written as string.
+     *
+     * @param key the collation key
+     */
+    private void writeCollationKey(CollationKey key) {
+      byte[] source = key.toByteArray();
+      char[] chars = new char[source.length / 2];
+      for (int i = 0; i < chars.length; i++) {
+        chars[i] = (char) (((source[2 * i] & 0xFF) << 8) | (source[2 * i + 1] & 0xFF));
+      }
+      writeString(new String(chars), false);
+    }
+
+    private void writeLong(long value) {
+      ensureCapacity(Long.BYTES);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        bytes[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void writeInt(int value) {
+      ensureCapacity(Integer.BYTES);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        bytes[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void writeShort(int value) {
+      ensureCapacity(Short.BYTES);
+      bytes[size++] = (byte) (value >>> 8);
+      bytes[size++] = (byte) value;
+    }
+
+    private void write(byte value) {
+      ensureCapacity(1);
+      bytes[size++] = value;
+    }
+
+    private void ensureCapacity(int length) {
+      if (size + length > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+      }
+    }
+
+    /**
+     * Returns the written bytes.
+     *
+     * @return the key
+     */
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, size);
+    }
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.util.Arrays;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The statistics of a sort of the {@link Sorter}.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class SortStatistics {
+
+  private final int size;
+
+  private final int runs;
+
+  private final int[] cardinalities;
+
+  /**
+   * Instantiates new sort statistics.
+   *
+   * @param size the number of elements
+   * @param runs the number of ascending runs
+   */
+  SortStatistics(int size, int runs) {
+    this(size, runs, new int[0]);
+  }
+
+  /**
+   * Instantiates new sort statistics.
+   *
+   * @param size the number of elements
+   * @param runs the number of ascending runs
+   * @param cardinalities the number of distinct values of each sort order, whose strings were
+   *     dictionary encoded, or {@code -1}
+   */
+  SortStatistics(int size, int runs, int[] cardinalities) {
+    this.size = size;
+    this.runs = runs;
+    this.cardinalities = cardinalities;
+  }
+
+  /**
+   * Gets the number of ascending runs of the source: a run ends, where an element is greater than
+   * its successor. A sorted source has one run (or none, if it is empty).
+   *
+   * @return the number of ascending runs
+   */
+  public int getRuns() {
+    return runs;
+  }
+
+  /**
+   * Determines whether the source was already sorted, so that nothing was changed.
+   *
+   * @return {@code true}, if the source was already sorted, otherwise {@code false}
+   */
+  public boolean isAlreadySorted() {
+    return runs <= 1;
+  }
+
+  /**
+   * Determines whether the source was sorted in strictly descending order, so that it was just
+   * reversed.
+   *
+   * @return {@code true}, if the source was reversed, otherwise {@code false}
+   */
+  public boolean isReversed() {
+    return size > 1 && runs == size;
+  }
+
+  /**
+   * Gets the cardinalities of the sort orders: an element of the returned array is the number of
+   * distinct strings of the sort order at the same index, if these strings were replaced by their
+   * ranks in a dictionary before sorting, otherwise it is {@code -1}. The array is empty, if the
+   * values were not extracted (for example, because the source was too small).
+   *
+   * @return the cardinalities of the sort orders
+   */
+  public int[] getCardinalities() {
+    return cardinalities.clone();
+  }
+
+  /**
+   * Determines whether the strings of at least one sort order were dictionary encoded.
+   *
+   * @return {@code true}, if the strings of a sort order were dictionary encoded, otherwise
+   *     {@code false}
+   */
+  public boolean isDictionaryEncoded() {
+    return Arrays.stream(cardinalities).anyMatch(cardinality -> cardinality >= 0);
+  }
+
+}
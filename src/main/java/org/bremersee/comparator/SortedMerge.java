@@ -0,0 +1,278 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.bremersee.comparator.model.SortOrders;
+
+/**
+ * The sorted merge combines sources, that are already sorted, into one sorted sequence (k-way
+ * merge). The merge is lazy: the next element of a source is read only when the previous one was
+ * consumed, and nothing is collected in between. The current elements of the sources are kept in a
+ * heap, so the next element is found with {@code O(log(k))} comparisons (where {@code k} is the
+ * number of sources).
+ *
+ * <p>The merge is stable: elements, that are equal by the comparator, are returned in the order of
+ * their sources.
+ *
+ * <p>If the sources should be verified, each element is compared with the previous element of its
+ * source and a {@link ComparatorException} is thrown, if a source is not sorted.
+ *
+ * @author Christian Bremer
+ */
+public abstract class SortedMerge {
+
+  private SortedMerge() {
+  }
+
+  /**
+   * Merges the given iterators, that are sorted by the given sort orders.
+   *
+   * @param <T> the element type
+   * @param sources the sorted iterators
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @return the merged iterator
+   */
+  public static <T> Iterator<T> iterator(
+      Collection<? extends Iterator<? extends T>> sources,
+      SortOrders sortOrders) {
+    return iterator(sources, ComparatorBuilder.newInstance().addAll(sortOrders).build(), false);
+  }
+
+  /**
+   * Merges the given iterators, that are sorted by the given comparator.
+   *
+   * @param <T> the element type
+   * @param sources the sorted iterators
+   * @param comparator the comparator
+   * @param verify {@code true}, if the order of each source should be verified
+   * @return the merged iterator
+   */
+  public static <T> Iterator<T> iterator(
+      Collection<? extends Iterator<? extends T>> sources,
+      Comparator<? super T> comparator,
+      boolean verify) {
+    return new MergingIterator<>(sources, comparator, verify);
+  }
+
+  /**
+   * Merges the given iterators, that are sorted by the given comparator, into a spliterator. The
+   * spliterator reports {@link Spliterator#SORTED} with the given comparator and cannot be split.
+   *
+   * @param <T> the element type
+   * @param sources the sorted iterators
+   * @param comparator the comparator
+   * @param verify {@code true}, if the order of each source should be verified
+   * @return the merged spliterator
+   */
+  public static <T> Spliterator<T> spliterator(
+      Collection<? extends Iterator<? extends T>> sources,
+      Comparator<? super T> comparator,
+      boolean verify) {
+    Iterator<T> iterator = iterator(sources, comparator, verify);
+    return new Spliterators.AbstractSpliterator<>(
+        Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.SORTED) {
+
+      @Override
+      public boolean tryAdvance(Consumer<? super T> action) {
+        if (iterator.hasNext()) {
+          action.accept(iterator.next());
+          return true;
+        }
+        return false;
+      }
+
+      @Override
+      public Spliterator<T> trySplit() {
+        return null;
+      }
+
+      @Override
+      public Comparator<? super T> getComparator() {
+        return comparator;
+      }
+    };
+  }
+
+  /**
+   * Merges the given streams, that are sorted by the given sort orders.
+   *
+   * @param <T> the element type
+   * @param sources the sorted streams
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @return the merged stream
+   */
+  public static <T> Stream<T> stream(
+      Collection<? extends Stream<? extends T>> sources,
+      SortOrders sortOrders) {
+    return stream(sources, ComparatorBuilder.newInstance().addAll(sortOrders).build(), false);
+  }
+
+  /**
+   * Merges the given streams, that are sorted by the given comparator. Closing the merged stream
+   * closes all sources.
+   *
+   * @param <T> the element type
+   * @param sources the sorted streams
+   * @param comparator the comparator
+   * @param verify {@code true}, if the order of each source should be verified
+   * @return the merged stream
+   */
+  public static <T> Stream<T> stream(
+      Collection<? extends Stream<? extends T>> sources,
+      Comparator<? super T> comparator,
+      boolean verify) {
+    List<Iterator<? extends T>> iterators = new ArrayList<>(sources.size());
+    for (Stream<? extends T> source : sources) {
+      iterators.add(source.iterator());
+    }
+    return StreamSupport.stream(spliterator(iterators, comparator, verify), false)
+        .onClose(() -> closeAll(new ArrayList<>(sources), 0));
+  }
+
+  private static void closeAll(List<? extends Stream<?>> streams, int index) {
+    if (index < streams.size()) {
+      try {
+        streams.get(index).close();
+      } finally {
+        closeAll(streams, index + 1);
+      }
+    }
+  }
+
+  /**
+   * The iterator, that merges the sources.
+   *
+   * @param <T> the element type
+   */
+  private static class MergingIterator<T> implements Iterator<T> {
+
+    private final List<Source<T>> sources;
+
+    private final Comparator<? super T> comparator;
+
+    private final boolean verify;
+
+    private final PriorityQueue<Source<T>> heap;
+
+    private Source<T> last;
+
+    private boolean initialized;
+
+    /**
+     * Instantiates a new merging iterator.
+     *
+     * @param sources the sources
+     * @param comparator the comparator
+     * @param verify {@code true}, if the order of each source should be verified
+     */
+    MergingIterator(
+        Collection<? extends Iterator<? extends T>> sources,
+        Comparator<? super T> comparator,
+        boolean verify) {
+      Objects.requireNonNull(sources, "Sources must be present.");
+      this.comparator = Objects.requireNonNull(comparator, "Comparator must be present.");
+      this.verify = verify;
+      this.sources = new ArrayList<>(sources.size());
+      for (Iterator<? extends T> iterator : sources) {
+        this.sources.add(new Source<>(
+            Objects.requireNonNull(iterator, "Source must be present."), this.sources.size()));
+      }
+      this.heap = new PriorityQueue<>(Math.max(1, sources.size()), (s1, s2) -> {
+        int result = comparator.compare(s1.current, s2.current);
+        return result != 0 ? result : Integer.compare(s1.index, s2.index);
+      });
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (!initialized) {
+        initialized = true;
+        for (Source<T> source : sources) {
+          advance(source);
+        }
+      } else if (last != null) {
+        advance(last);
+        last = null;
+      }
+      return !heap.isEmpty();
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      last = heap.poll();
+      return last.current;
+    }
+
+    private void advance(Source<T> source) {
+      if (source.iterator.hasNext()) {
+        T next = source.iterator.next();
+        if (verify && source.started && comparator.compare(source.current, next) > 0) {
+          throw new ComparatorException("Source " + source.index + " is not sorted.");
+        }
+        source.current = next;
+        source.started = true;
+        heap.add(source);
+      } else {
+        source.current = null;
+      }
+    }
+  }
+
+  /**
+   * A source of the merge with its current element.
+   *
+   * @param <T> the element type
+   */
+  private static class Source<T> {
+
+    private final Iterator<? extends T> iterator;
+
+    private final int index;
+
+    private T current;
+
+    private boolean started;
+
+    /**
+     * Instantiates a new source.
+     *
+     * @param iterator the iterator
+     * @param index the index
+     */
+    Source(Iterator<? extends T> iterator, int index) {
+      this.iterator = iterator;
+      this.index = index;
+    }
+  }
+
+}
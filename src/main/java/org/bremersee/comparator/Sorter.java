@@ -0,0 +1,852 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.text.CollationKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.bremersee.comparator.model.SortOrder;
+import org.bremersee.comparator.model.SortOrders;
+
+/**
+ * The sorter sorts a list by the given sort orders with exactly the same result as {@code
+ * list.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build())}. But instead of extracting
+ * the values of the fields again and again on every comparison, the values of each element are
+ * extracted only once before sorting (decorate-sort-undecorate). So the value extractor is called
+ * {@code n * k} times instead of {@code 2 * k * n * log(n)} times (where {@code n} is the size of
+ * the list and {@code k} the number of sort orders).
+ *
+ * <p>Please note, that all values are extracted, even if the comparison of a previous field
+ * already decides the order. So a value extractor, that throws an exception for a field, that is
+ * never reached by the comparator chain, will throw it here.
+ *
+ * <p>Before sorting, the extracted values are compared once in the order of the list to count its
+ * ascending runs (see {@link SortStatistics}). A list, that is already sorted, is not changed; a
+ * list, that is sorted in strictly descending order, is just reversed. Otherwise the runs are
+ * merged by the sort of {@link Arrays}.
+ *
+ * <p>Strings of sort orders with a locale are extracted as {@link CollationKey}, so the collator
+ * transforms each string only once.
+ *
+ * <p>If a sort order has only a few distinct strings (like a status, a country or a category),
+ * they are dictionary encoded, when the list is sorted sequentially: the distinct strings are
+ * sorted once and each string is replaced by its rank, so that the sort compares integers instead
+ * of strings. The number of the distinct strings is reported by {@link
+ * SortStatistics#getCardinalities()}.
+ *
+ * @author Christian Bremer
+ */
+public abstract class Sorter {
+
+  /**
+   * The default size of a list, below which {@link #parallelSort(List, SortOrders)} sorts
+   * sequentially.
+   */
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;
+
+  /**
+   * The minimum ratio of the size of a list to the number of distinct strings of a sort order, at
+   * which the strings are dictionary encoded.
+   */
+  private static final int DICTIONARY_RATIO = 4;
+
+  /**
+   * The maximum number of distinct strings of a sort order, that are dictionary encoded.
+   */
+  private static final int DICTIONARY_MAX_CARDINALITY = 256;
+
+  private Sorter() {
+  }
+
+  /**
+   * Sorts the given list by the given sort orders.
+   *
+   * @param <T> the element type
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @return the sort statistics
+   */
+  public static <T> SortStatistics sort(List<T> list, SortOrders sortOrders) {
+    return sort(list, sortOrders, null);
+  }
+
+  /**
+   * Sorts the given list by the given sort orders with the given value extractor.
+   *
+   * @param <T> the element type
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @return the sort statistics
+   */
+  public static <T> SortStatistics sort(
+      List<T> list,
+      SortOrders sortOrders,
+      ValueExtractor valueExtractor) {
+    return sort(list, sortOrders != null ? sortOrders.getSortOrders() : null, valueExtractor);
+  }
+
+  /**
+   * Sorts the given list by the given sort orders with the given value extractor.
+   *
+   * @param <T> the element type
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @return the sort statistics
+   */
+  public static <T> SortStatistics sort(
+      List<T> list,
+      Collection<? extends SortOrder> sortOrders,
+      ValueExtractor valueExtractor) {
+    return sort(list, sortOrders, valueExtractor, false);
+  }
+
+  /**
+   * Sorts the given list by the given sort orders in parallel, if the list has at least {@link
+   * #DEFAULT_PARALLEL_THRESHOLD} elements (see {@link #parallelSort(List, SortOrders,
+   * ValueExtractor, int)}).
+   *
+   * @param <T> the element type
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @return the sort statistics
+   */
+  public static <T> SortStatistics parallelSort(List<T> list, SortOrders sortOrders) {
+    return parallelSort(list, sortOrders, null, DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * Sorts the given list by the given sort orders with the given value extractor in parallel, if
+   * the list has at least {@link #DEFAULT_PARALLEL_THRESHOLD} elements (see {@link
+   * #parallelSort(List, SortOrders, ValueExtractor, int)}).
+   *
+   * @param <T> the element type
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @return the sort statistics
+   */
+  public static <T> SortStatistics parallelSort(
+      List<T> list,
+      SortOrders sortOrders,
+      ValueExtractor valueExtractor) {
+    return parallelSort(list, sortOrders, valueExtractor, DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * Sorts the given list by the given sort orders with the given value extractor in parallel. The
+   * values are extracted by the tasks of the common fork join pool, if the value extractor is
+   * {@link ValueExtractor#isThreadSafe() thread safe}; otherwise they are extracted by the calling
+   * thread. Then the elements are sorted with {@link Arrays#parallelSort(Object[],
+   * java.util.Comparator)}. The sort is stable and the result is the same as the result of {@link
+   * #sort(List, SortOrders, ValueExtractor)}.
+   *
+   * @param <T> the element type
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @param threshold the size of the list, below which the list is sorted sequentially
+   * @return the sort statistics
+   */
+  public static <T> SortStatistics parallelSort(
+      List<T> list,
+      SortOrders sortOrders,
+      ValueExtractor valueExtractor,
+      int threshold) {
+
+    return sort(
+        list,
+        sortOrders != null ? sortOrders.getSortOrders() : null,
+        valueExtractor,
+        list != null && list.size() >= threshold);
+  }
+
+  private static <T> SortStatistics sort(
+      List<T> list,
+      Collection<? extends SortOrder> sortOrders,
+      ValueExtractor valueExtractor,
+      boolean parallel) {
+
+    if (list == null || list.size() < 2) {
+      return new SortStatistics(list != null ? list.size() : 0, list != null ? list.size() : 0);
+    }
+    ValueComparator[] comparators = createComparators(sortOrders, valueExtractor);
+    if (comparators.length == 0) {
+      Object[] elements = list.toArray();
+      Comparator<Object> comparator = new ComparatorChain(null);
+      int runs = countRuns(
+          elements.length, i -> comparator.compare(elements[i - 1], elements[i]) > 0, parallel);
+      if (runs == 1) {
+        return new SortStatistics(elements.length, runs);
+      } else if (runs == elements.length) {
+        Collections.reverse(list);
+      } else if (parallel) {
+        Arrays.parallelSort(elements, comparator);
+        write(list, elements);
+      } else {
+        Arrays.sort(elements, comparator);
+        write(list, elements);
+      }
+      return new SortStatistics(elements.length, runs);
+    }
+    Object[] elements = list.toArray();
+    int k = comparators.length;
+    Object[] keys = new Object[elements.length * k];
+    Entry[] entries = new Entry[elements.length];
+    IntStream indexes = IntStream.range(0, elements.length);
+    if (parallel && isThreadSafe(comparators)) {
+      indexes = indexes.parallel();
+    }
+    indexes.forEach(i -> {
+      extractKeys(elements[i], comparators, keys, i * k);
+      entries[i] = new Entry(elements[i], i * k);
+    });
+    int[] cardinalities = new int[k];
+    Arrays.fill(cardinalities, -1);
+    int runs = countRuns(
+        elements.length, i -> compareKeys(comparators, keys, (i - 1) * k, i * k) > 0, parallel);
+    if (runs == 1) {
+      return new SortStatistics(elements.length, runs, cardinalities);
+    } else if (runs == elements.length) {
+      Collections.reverse(list);
+      return new SortStatistics(elements.length, runs, cardinalities);
+    }
+    if (!parallel) {
+      for (int j = 0; j < k; j++) {
+        cardinalities[j] = encodeDictionary(comparators[j], keys, elements.length, k, j);
+      }
+    }
+    Comparator<Entry> entryComparator = (e1, e2) -> compareKeys(
+        comparators, keys, e1.offset, e2.offset);
+    if (parallel) {
+      Arrays.parallelSort(entries, entryComparator);
+    } else {
+      Arrays.sort(entries, entryComparator);
+    }
+    Object[] sorted = new Object[entries.length];
+    for (int i = 0; i < entries.length; i++) {
+      sorted[i] = entries[i].element;
+    }
+    write(list, sorted);
+    return new SortStatistics(elements.length, runs, cardinalities);
+  }
+
+  /**
+   * Replaces the strings (or collation keys) of the sort order at the given index by their ranks
+   * in a dictionary, if there are at most {@code size / DICTIONARY_RATIO} and not more than
+   * {@link #DICTIONARY_MAX_CARDINALITY} distinct values; the dictionary is abandoned as soon as
+   * there are more. The ranks are ordered like the strings by the case handling (or the collator)
+   * of the sort order; strings, that are equal for the sort order, have the same rank. So
+   * afterwards only integers are compared; the direction and the null handling are still applied
+   * by the value comparator.
+   *
+   * @param comparator the value comparator of the sort order
+   * @param keys the extracted values of all elements
+   * @param size the number of elements
+   * @param k the number of sort orders
+   * @param j the index of the sort order
+   * @return the number of distinct values or {@code -1}, if the values were not encoded
+   */
+  private static int encodeDictionary(
+      ValueComparator comparator,
+      Object[] keys,
+      int size,
+      int k,
+      int j) {
+
+    int maxCardinality = Math.min(size / DICTIONARY_RATIO, DICTIONARY_MAX_CARDINALITY);
+    Map<Object, Integer> dictionary = new HashMap<>();
+    for (int i = j; i < keys.length; i += k) {
+      Object value = keys[i];
+      if (value == null) {
+        continue;
+      }
+      if (!(value instanceof String) && !(value instanceof CollationKey)) {
+        return -1;
+      }
+      if (dictionary.putIfAbsent(value, 0) == null && dictionary.size() > maxCardinality) {
+        return -1;
+      }
+    }
+    if (dictionary.isEmpty()) {
+      return -1;
+    }
+    Comparator<Object> order = comparator.isAsc()
+        ? comparator::compareValues
+        : (v1, v2) -> comparator.compareValues(v2, v1);
+    Object[] values = dictionary.keySet().toArray();
+    Arrays.sort(values, order);
+    int rank = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0 && order.compare(values[i - 1], values[i]) != 0) {
+        rank++;
+      }
+      dictionary.put(values[i], rank);
+    }
+    for (int i = j; i < keys.length; i += k) {
+      if (keys[i] != null) {
+        keys[i] = dictionary.get(keys[i]);
+      }
+    }
+    return values.length;
+  }
+
+  /**
+   * Counts the ascending runs of a list.
+   *
+   * @param size the size of the list
+   * @param isDescent determines whether the element at the given index is less than its
+   *     predecessor
+   * @param parallel {@code true}, if the elements should be compared in parallel
+   * @return the number of ascending runs
+   */
+  private static int countRuns(int size, IntPredicate isDescent, boolean parallel) {
+    IntStream indexes = IntStream.range(1, size);
+    if (parallel) {
+      indexes = indexes.parallel();
+    }
+    return 1 + (int) indexes.filter(isDescent).count();
+  }
+
+  /**
+   * Determines whether the given list is sorted by the given sort orders (see {@link
+   * #isSorted(List, SortOrders, ValueExtractor)}).
+   *
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @return {@code true}, if the list is sorted, otherwise {@code false}
+   */
+  public static boolean isSorted(List<?> list, SortOrders sortOrders) {
+    return isSorted(list, sortOrders, null);
+  }
+
+  /**
+   * Determines whether the given list is sorted by the given sort orders. The list is read once
+   * and the values of each element are extracted once. The check stops at the first element, that
+   * is less than its predecessor.
+   *
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @return {@code true}, if the list is sorted, otherwise {@code false}
+   */
+  public static boolean isSorted(
+      List<?> list,
+      SortOrders sortOrders,
+      ValueExtractor valueExtractor) {
+
+    if (list == null || list.size() < 2) {
+      return true;
+    }
+    ValueComparator[] comparators = createComparators(
+        sortOrders != null ? sortOrders.getSortOrders() : null, valueExtractor);
+    Comparator<Object[]> keyOrder = keyOrder(comparators);
+    Object[] previous = null;
+    Object[] current = new Object[Math.max(1, comparators.length)];
+    for (Object element : list) {
+      if (comparators.length == 0) {
+        current[0] = element;
+      } else {
+        extractKeys(element, comparators, current, 0);
+      }
+      if (previous != null && keyOrder.compare(previous, current) > 0) {
+        return false;
+      }
+      Object[] tmp = previous != null ? previous : new Object[current.length];
+      previous = current;
+      current = tmp;
+    }
+    return true;
+  }
+
+  /**
+   * Sorts the given list by the given sort orders with a radix sort. The values of each element
+   * are encoded once into a binary key by the {@link SortKeyEncoder}, then the keys are sorted
+   * byte by byte without calling a comparator. The sort is stable and the result is the same as
+   * the result of {@link #sort(List, SortOrders)}. If a value cannot be encoded, the list is sorted
+   * by {@link #sort(List, SortOrders)}.
+   *
+   * @param <T> the element type
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   */
+  public static <T> void radixSort(List<T> list, SortOrders sortOrders) {
+    radixSort(list, sortOrders, null);
+  }
+
+  /**
+   * Sorts the given list by the given sort orders with the given value extractor and a radix sort
+   * (see {@link #radixSort(List, SortOrders)}).
+   *
+   * @param <T> the element type
+   * @param list the list (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   */
+  public static <T> void radixSort(
+      List<T> list,
+      SortOrders sortOrders,
+      ValueExtractor valueExtractor) {
+
+    if (list == null || list.size() < 2) {
+      return;
+    }
+    SortKeyEncoder encoder = new SortKeyEncoder(sortOrders, valueExtractor);
+    Object[] elements = list.toArray();
+    byte[][] keys = new byte[elements.length][];
+    try {
+      for (int i = 0; i < elements.length; i++) {
+        keys[i] = encoder.encode(elements[i]);
+      }
+    } catch (ComparatorException e) {
+      sort(list, sortOrders, valueExtractor);
+      return;
+    }
+    int[] order = RadixSort.sort(keys);
+    Object[] sorted = new Object[order.length];
+    for (int i = 0; i < order.length; i++) {
+      sorted[i] = elements[order[i]];
+    }
+    write(list, sorted);
+  }
+
+  /**
+   * Returns the first {@code k} elements of the given elements in the order of the given sort
+   * orders (see {@link #page(Collection, SortOrders, ValueExtractor, long, int)}).
+   *
+   * @param <T> the element type
+   * @param elements the elements (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param k the number of elements
+   * @return the first {@code k} elements
+   */
+  public static <T> List<T> topK(
+      Collection<? extends T> elements,
+      SortOrders sortOrders,
+      int k) {
+    return page(elements, sortOrders, null, 0L, k);
+  }
+
+  /**
+   * Returns a page of the given elements in the order of the given sort orders (see {@link
+   * #page(Collection, SortOrders, ValueExtractor, long, int)}).
+   *
+   * @param <T> the element type
+   * @param elements the elements (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param offset the index of the first element of the page in the sorted order
+   * @param size the size of the page
+   * @return the elements of the page
+   */
+  public static <T> List<T> page(
+      Collection<? extends T> elements,
+      SortOrders sortOrders,
+      long offset,
+      int size) {
+    return page(elements, sortOrders, null, offset, size);
+  }
+
+  /**
+   * Returns a page of the given elements in the order of the given sort orders. The result is the
+   * same as the sub list from {@code offset} to {@code offset + size} of the fully sorted elements
+   * (see {@link #sort(List, SortOrders, ValueExtractor)}), but the elements are not fully sorted:
+   * only the first {@code offset + size} elements are kept in a bounded heap, so the page is found
+   * in {@code O(n * log(offset + size))} time and with {@code O(offset + size)} additional memory.
+   * The values of each element are extracted once.
+   *
+   * @param <T> the element type
+   * @param elements the elements (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @param offset the index of the first element of the page in the sorted order
+   * @param size the size of the page
+   * @return the elements of the page
+   * @throws IllegalArgumentException if offset or size is negative
+   */
+  public static <T> List<T> page(
+      Collection<? extends T> elements,
+      SortOrders sortOrders,
+      ValueExtractor valueExtractor,
+      long offset,
+      int size) {
+
+    if (offset < 0 || size < 0) {
+      throw new IllegalArgumentException("Offset and size must not be negative.");
+    }
+    if (elements == null || offset >= elements.size() || size == 0) {
+      return new ArrayList<>();
+    }
+    int k = (int) Math.min(elements.size(), offset + size);
+    if (k == elements.size()) {
+      List<T> list = new ArrayList<>(elements);
+      sort(list, sortOrders, valueExtractor);
+      return new ArrayList<>(list.subList((int) offset, k));
+    }
+    ValueComparator[] comparators = createComparators(
+        sortOrders != null ? sortOrders.getSortOrders() : null, valueExtractor);
+    Comparator<Object[]> keyOrder = keyOrder(comparators);
+    Comparator<HeapEntry> entryOrder = entryOrder(keyOrder);
+    // the heap contains the first k elements, the greatest is on top
+    PriorityQueue<HeapEntry> heap = new PriorityQueue<>(k, entryOrder.reversed());
+    int index = 0;
+    Object[] keys = null;
+    for (T element : elements) {
+      if (keys == null) {
+        keys = new Object[Math.max(1, comparators.length)];
+      }
+      if (comparators.length == 0) {
+        keys[0] = element;
+      } else {
+        extractKeys(element, comparators, keys, 0);
+      }
+      if (heap.size() < k) {
+        heap.add(new HeapEntry(element, keys, index));
+        keys = null;
+      } else if (keyOrder.compare(keys, heap.peek().keys) < 0) {
+        heap.poll();
+        heap.add(new HeapEntry(element, keys, index));
+        keys = null;
+      }
+      index++;
+    }
+    Object[] sorted = new Object[k];
+    for (int i = k - 1; i >= 0; i--) {
+      sorted[i] = heap.poll().element;
+    }
+    List<T> page = new ArrayList<>(k - (int) offset);
+    for (int i = (int) offset; i < k; i++) {
+      //noinspection unchecked
+      page.add((T) sorted[i]);
+    }
+    return page;
+  }
+
+  /**
+   * Returns an iterator, that returns the given elements in the order of the given sort orders
+   * (see {@link #lazySort(Collection, SortOrders, ValueExtractor)}).
+   *
+   * @param <T> the element type
+   * @param elements the elements (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @return the iterator
+   */
+  public static <T> Iterator<T> lazySort(
+      Collection<? extends T> elements,
+      SortOrders sortOrders) {
+    return lazySort(elements, sortOrders, null);
+  }
+
+  /**
+   * Returns an iterator, that returns the given elements in the order of the given sort orders.
+   * The elements are not sorted in advance: the values of each element are extracted and a heap is
+   * built in {@code O(n)} time, then each call of {@link Iterator#next()} removes the next element
+   * from the heap in {@code O(log(n))} time. So the first elements are available in linear time
+   * and the total work depends on the number of elements, that are consumed. The order is the same
+   * as the order of {@link #sort(List, SortOrders, ValueExtractor)}.
+   *
+   * <p>The given collection is copied, when this method is called.
+   *
+   * @param <T> the element type
+   * @param elements the elements (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @return the iterator
+   */
+  public static <T> Iterator<T> lazySort(
+      Collection<? extends T> elements,
+      SortOrders sortOrders,
+      ValueExtractor valueExtractor) {
+
+    ValueComparator[] comparators = createComparators(
+        sortOrders != null ? sortOrders.getSortOrders() : null, valueExtractor);
+    HeapEntry[] heap = new HeapEntry[elements != null ? elements.size() : 0];
+    int index = 0;
+    if (elements != null) {
+      for (T element : elements) {
+        Object[] keys = new Object[Math.max(1, comparators.length)];
+        if (comparators.length == 0) {
+          keys[0] = element;
+        } else {
+          extractKeys(element, comparators, keys, 0);
+        }
+        heap[index] = new HeapEntry(element, keys, index);
+        index++;
+      }
+    }
+    return new LazySortIterator<>(heap, entryOrder(keyOrder(comparators)));
+  }
+
+  /**
+   * Returns a sequential stream of the given elements in the order of the given sort orders (see
+   * {@link #lazySort(Collection, SortOrders, ValueExtractor)}).
+   *
+   * @param <T> the element type
+   * @param elements the elements (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @return the stream
+   */
+  public static <T> Stream<T> lazySortedStream(
+      Collection<? extends T> elements,
+      SortOrders sortOrders) {
+    return lazySortedStream(elements, sortOrders, null);
+  }
+
+  /**
+   * Returns a sequential stream of the given elements in the order of the given sort orders (see
+   * {@link #lazySort(Collection, SortOrders, ValueExtractor)}).
+   *
+   * @param <T> the element type
+   * @param elements the elements (can be {@code null})
+   * @param sortOrders the sort orders (can be {@code null}, then the elements must be comparable)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @return the stream
+   */
+  public static <T> Stream<T> lazySortedStream(
+      Collection<? extends T> elements,
+      SortOrders sortOrders,
+      ValueExtractor valueExtractor) {
+    return StreamSupport.stream(Spliterators.spliterator(
+        lazySort(elements, sortOrders, valueExtractor),
+        elements != null ? elements.size() : 0,
+        Spliterator.ORDERED), false);
+  }
+
+  private static ValueComparator[] createComparators(
+      Collection<? extends SortOrder> sortOrders,
+      ValueExtractor valueExtractor) {
+
+    List<ValueComparator> comparators = new ArrayList<>();
+    if (sortOrders != null) {
+      sortOrders.stream()
+          .filter(Objects::nonNull)
+          .forEach(sortOrder -> comparators.add(new ValueComparator(sortOrder, valueExtractor)));
+    }
+    return comparators.toArray(new ValueComparator[0]);
+  }
+
+  private static boolean isThreadSafe(ValueComparator[] comparators) {
+    for (ValueComparator comparator : comparators) {
+      if (!comparator.getValueExtractor().isThreadSafe()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void extractKeys(
+      Object element,
+      ValueComparator[] comparators,
+      Object[] keys,
+      int offset) {
+
+    for (int j = 0; j < comparators.length; j++) {
+      ValueComparator comparator = comparators[j];
+      Object value = DefaultValueExtractor.extractValue(
+          comparator.getValueExtractor(), element, comparator.getFieldPath());
+      if (comparator.getCollator() != null && value instanceof String) {
+        value = ThreadCollators.get(comparator.getCollator()).getCollationKey((String) value);
+      }
+      keys[offset + j] = value;
+    }
+  }
+
+  private static int compareKeys(
+      ValueComparator[] comparators,
+      Object[] keys,
+      int offset1,
+      int offset2) {
+
+    for (int j = 0; j < comparators.length; j++) {
+      int result = comparators[j].compareValues(keys[offset1 + j], keys[offset2 + j]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  private static int compareKeys(
+      ValueComparator[] comparators,
+      Object[] keys1,
+      Object[] keys2) {
+
+    for (int j = 0; j < comparators.length; j++) {
+      int result = comparators[j].compareValues(keys1[j], keys2[j]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  private static Comparator<Object[]> keyOrder(ValueComparator[] comparators) {
+    if (comparators.length == 0) {
+      Comparator<Object> comparator = new ComparatorChain(null);
+      return (keys1, keys2) -> comparator.compare(keys1[0], keys2[0]);
+    }
+    return (keys1, keys2) -> compareKeys(comparators, keys1, keys2);
+  }
+
+  private static Comparator<HeapEntry> entryOrder(Comparator<Object[]> keyOrder) {
+    return (e1, e2) -> {
+      int result = keyOrder.compare(e1.keys, e2.keys);
+      return result != 0 ? result : Integer.compare(e1.index, e2.index);
+    };
+  }
+
+  private static <T> void write(List<T> list, Object[] elements) {
+    ListIterator<T> iterator = list.listIterator();
+    for (Object element : elements) {
+      iterator.next();
+      //noinspection unchecked
+      iterator.set((T) element);
+    }
+  }
+
+  /**
+   * The entry of the heap: the element, its keys and its index in the source.
+   */
+  private static final class HeapEntry {
+
+    private final Object element;
+
+    private final Object[] keys;
+
+    private final int index;
+
+    /**
+     * Instantiates a new heap entry.
+     *
+     * @param element the element
+     * @param keys the keys of the element
+     * @param index the index of the element in the source
+     */
+    HeapEntry(Object element, Object[] keys, int index) {
+      this.element = element;
+      this.keys = keys;
+      this.index = index;
+    }
+  }
+
+  /**
+   * The iterator of the lazy sort: a binary min-heap of the entries, that is built bottom-up.
+   *
+   * @param <T> the element type
+   */
+  private static final class LazySortIterator<T> implements Iterator<T> {
+
+    private final HeapEntry[] heap;
+
+    private final Comparator<HeapEntry> entryOrder;
+
+    private int size;
+
+    /**
+     * Instantiates a new lazy sort iterator.
+     *
+     * @param heap the entries, that will be ordered as heap
+     * @param entryOrder the order of the entries
+     */
+    LazySortIterator(HeapEntry[] heap, Comparator<HeapEntry> entryOrder) {
+      this.heap = heap;
+      this.entryOrder = entryOrder;
+      this.size = heap.length;
+      for (int i = (size >>> 1) - 1; i >= 0; i--) {
+        siftDown(i);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return size > 0;
+    }
+
+    @Override
+    public T next() {
+      if (size == 0) {
+        throw new NoSuchElementException();
+      }
+      HeapEntry first = heap[0];
+      size--;
+      heap[0] = heap[size];
+      heap[size] = null;
+      if (size > 0) {
+        siftDown(0);
+      }
+      //noinspection unchecked
+      return (T) first.element;
+    }
+
+    private void siftDown(int index) {
+      HeapEntry entry = heap[index];
+      int half = size >>> 1;
+      while (index < half) {
+        int child = (index << 1) + 1;
+        int right = child + 1;
+        if (right < size && entryOrder.compare(heap[right], heap[child]) < 0) {
+          child = right;
+        }
+        if (entryOrder.compare(entry, heap[child]) <= 0) {
+          break;
+        }
+        heap[index] = heap[child];
+        index = child;
+      }
+      heap[index] = entry;
+    }
+  }
+
+  /**
+   * The sort entry: the element and the offset of its keys.
+   */
+  private static final class Entry {
+
+    private final Object element;
+
+    private final int offset;
+
+    /**
+     * Instantiates a new entry.
+     *
+     * @param element the element
+     * @param offset the offset of the keys of the element
+     */
+    Entry(Object element, int offset) {
+      this.element = element;
+      this.offset = offset;
+    }
+  }
+
+}
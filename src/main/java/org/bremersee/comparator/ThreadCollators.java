@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.text.Collator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The collators of the current thread. The methods {@code compare} and {@code getCollationKey} of
+ * a {@link java.text.RuleBasedCollator} are synchronized, so one collator, that is shared by
+ * several threads (like the collator of a cached comparator in a parallel sort), lets only one
+ * thread compare at a time. Therefore each thread compares with its own clone of a collator.
+ *
+ * <p>Equal collators (same rules, strength and decomposition) share one clone per thread, so each
+ * thread keeps only one clone for each distinct locale and strength, that is used for sorting.
+ *
+ * @author Christian Bremer
+ */
+abstract class ThreadCollators {
+
+  private static final ThreadLocal<Map<Collator, Collator>> CLONES = ThreadLocal
+      .withInitial(HashMap::new);
+
+  private ThreadCollators() {
+  }
+
+  /**
+   * Gets the clone of the given collator, that belongs to the current thread.
+   *
+   * @param collator the collator
+   * @return the clone of the collator
+   */
+  static Collator get(Collator collator) {
+    return CLONES.get().computeIfAbsent(collator, prototype -> (Collator) prototype.clone());
+  }
+
+}
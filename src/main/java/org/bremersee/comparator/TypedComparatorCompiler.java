@@ -0,0 +1,694 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import lombok.ToString;
+import org.bremersee.comparator.annotation.Sortable;
+import org.bremersee.comparator.annotation.SortableAccessorsRegistry;
+
+/**
+ * The typed comparator compiler turns a {@link ValueComparator} into a comparator, that is
+ * specialized for a given element type. The field path is resolved once against the declared types
+ * of the element class and its fields or getters. Each field or getter is compiled by the {@link
+ * CompiledValueExtractor} into a class generated by the {@link java.lang.invoke.LambdaMetafactory}.
+ * The null handling and the direction are decided when the comparator is created. Values of a
+ * primitive number or character type are compared without boxing them, enums are compared by their
+ * ordinal.
+ *
+ * <p>If the element type is annotated with {@link Sortable}, the accessor, that was generated at
+ * build time, is used instead and no reflection is needed at all.
+ *
+ * <p>The compiled comparator produces exactly the same results as the value comparator: an
+ * element or a value along the path, that is an instance of the declared type (for example of an
+ * implementation of an interface or of a subclass), is read by the compiled accessor, if the
+ * value extractor finds the same field or an override of the same getter on its class. Otherwise
+ * the value is extracted by the value extractor of the value comparator.
+ *
+ * @author Christian Bremer
+ */
+final class TypedComparatorCompiler {
+
+  private TypedComparatorCompiler() {
+  }
+
+  /**
+   * Compiles the given comparator for the given element type.
+   *
+   * @param <T> the element type
+   * @param type the element type
+   * @param comparator the comparator
+   * @return the compiled comparator; empty, if the comparator cannot be compiled
+   */
+  static <T> Optional<Comparator<T>> compile(Class<T> type, Comparator<?> comparator) {
+    if (type == null || !(comparator instanceof ValueComparator)) {
+      return Optional.empty();
+    }
+    ValueComparator valueComparator = (ValueComparator) comparator;
+    return compilePath(type, valueComparator)
+        .map(path -> TypedComparatorCompiler.<T>compilePrimitive(path, valueComparator)
+            .orElseGet(() -> new TypedValueComparator<>(path, valueComparator)));
+  }
+
+  /**
+   * Compiles the field path of the given value comparator.
+   *
+   * @param type the element type
+   * @param comparator the value comparator
+   * @return the compiled path; empty, if the path cannot be compiled
+   */
+  static Optional<CompiledPath> compilePath(Class<?> type, ValueComparator comparator) {
+    ValueExtractor extractor = comparator.getValueExtractor();
+    if (extractor.getClass() != DefaultValueExtractor.class
+        && extractor.getClass() != CompiledValueExtractor.class) {
+      return Optional.empty();
+    }
+    DefaultValueExtractor valueExtractor = (DefaultValueExtractor) extractor;
+    FieldPath fieldPath = comparator.getFieldPath();
+    Optional<CompiledPath> generatedPath = findGeneratedPath(type, valueExtractor, fieldPath);
+    if (generatedPath.isPresent()) {
+      return generatedPath;
+    }
+    Guard[] guards = new Guard[fieldPath.size()];
+    //noinspection unchecked
+    Function<Object, Object>[] accessors = new Function[fieldPath.size()];
+    Class<?> currentType = type;
+    AccessibleObject lastAccessor = null;
+    for (int i = 0; i < fieldPath.size(); i++) {
+      Class<?> segmentType = wrap(currentType);
+      AccessibleObject accessor = valueExtractor
+          .findAccessor(segmentType, fieldPath.getSegment(i))
+          .orElse(null);
+      if (accessor == null) {
+        return Optional.empty();
+      }
+      Optional<Function<Object, Object>> compiled = CompiledValueExtractor.compile(accessor);
+      if (compiled.isEmpty()) {
+        return Optional.empty();
+      }
+      accessors[i] = compiled.get();
+      guards[i] = new Guard(valueExtractor, segmentType, fieldPath.getSegment(i), accessor);
+      lastAccessor = accessor;
+      currentType = accessor instanceof Field
+          ? ((Field) accessor).getType()
+          : ((Method) accessor).getReturnType();
+    }
+    GuardedPath guardedPath = new GuardedPath(valueExtractor, fieldPath, guards, accessors);
+    CompiledPath path = new CompiledPath(guardedPath, wrap(currentType), fieldPath);
+    path.compiled = guardedPath::isCompiled;
+    if (currentType.isPrimitive()) {
+      int last = guards.length - 1;
+      path.ownerPath = new GuardedPath(valueExtractor, fieldPath, Arrays.copyOf(guards, last),
+          Arrays.copyOf(accessors, last));
+      path.ownerGuard = guards[last];
+      path.accessor = lastAccessor;
+    }
+    return Optional.of(path);
+  }
+
+  /**
+   * Finds the accessor of the field path, that was generated for a type annotated with {@link
+   * Sortable}.
+   *
+   * @param type the element type
+   * @param valueExtractor the value extractor for objects, that are not of the element type
+   * @param fieldPath the field path
+   * @return the compiled path; empty, if there is no generated accessor
+   */
+  private static Optional<CompiledPath> findGeneratedPath(
+      Class<?> type,
+      DefaultValueExtractor valueExtractor,
+      FieldPath fieldPath) {
+
+    String path = fieldPath.toString();
+    return SortableAccessorsRegistry.find(type)
+        .filter(generated -> generated.getAccessors().containsKey(path))
+        .map(generated -> {
+          //noinspection unchecked
+          Function<Object, Object> accessor = (Function<Object, Object>) generated
+              .getAccessors().get(path);
+          CompiledPath compiledPath = new CompiledPath(
+              obj -> type.isInstance(obj)
+                  ? accessor.apply(obj)
+                  : DefaultValueExtractor.extractValue(valueExtractor, obj, fieldPath),
+              generated.getValueTypes().getOrDefault(path, Object.class),
+              fieldPath);
+          compiledPath.compiled = type::isInstance;
+          return compiledPath;
+        });
+  }
+
+  /**
+   * Compiles a comparator, that compares the primitive value of the last field or getter of the
+   * path without boxing it.
+   *
+   * @param <T> the element type
+   * @param path the compiled path
+   * @param valueComparator the value comparator
+   * @return the comparator; empty, if the value is not a number or a character
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> Optional<Comparator<T>> compilePrimitive(
+      CompiledPath path,
+      ValueComparator valueComparator) {
+
+    if (path.accessor == null) {
+      return Optional.empty();
+    }
+    Class<?> primitiveType = path.accessor instanceof Field
+        ? ((Field) path.accessor).getType()
+        : ((Method) path.accessor).getReturnType();
+    try {
+      if (primitiveType == double.class || primitiveType == float.class) {
+        return Optional.of(new DoubleValueComparator<>(
+            path, valueComparator, (ToDoubleFunction<Object>) compilePrimitiveAccessor(
+                path.accessor, ToDoubleFunction.class, "applyAsDouble", double.class)));
+      }
+      if (primitiveType != boolean.class && primitiveType != void.class) {
+        return Optional.of(new LongValueComparator<>(
+            path, valueComparator, (ToLongFunction<Object>) compilePrimitiveAccessor(
+                path.accessor, ToLongFunction.class, "applyAsLong", long.class),
+            primitiveType != int.class && primitiveType != long.class));
+      }
+    } catch (Throwable t) {
+      // the boxed value will be compared
+    }
+    return Optional.empty();
+  }
+
+  private static Object compilePrimitiveAccessor(
+      AccessibleObject accessor,
+      Class<?> functionType,
+      String functionName,
+      Class<?> valueType) throws Throwable {
+
+    Member member = (Member) accessor;
+    MethodHandles.Lookup lookup = MethodHandles
+        .privateLookupIn(member.getDeclaringClass(), MethodHandles.lookup());
+    MethodHandle handle = accessor instanceof Field
+        ? lookup.unreflectGetter((Field) accessor)
+        : lookup.unreflect((Method) accessor);
+    if (accessor instanceof Method) {
+      try {
+        return LambdaMetafactory.metafactory(
+                lookup,
+                functionName,
+                MethodType.methodType(functionType),
+                MethodType.methodType(valueType, Object.class),
+                handle,
+                MethodType.methodType(valueType, member.getDeclaringClass()))
+            .getTarget()
+            .invoke();
+      } catch (LambdaConversionException e) {
+        // use the method handle
+      }
+    }
+    MethodHandle getter = handle.asType(MethodType.methodType(valueType, Object.class));
+    if (valueType == double.class) {
+      return (ToDoubleFunction<Object>) obj -> {
+        try {
+          return (double) getter.invokeExact(obj);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable t) {
+          throw new ValueExtractorException("Invoking method handle failed.", t);
+        }
+      };
+    }
+    return (ToLongFunction<Object>) obj -> {
+      try {
+        return (long) getter.invokeExact(obj);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ValueExtractorException("Invoking method handle failed.", t);
+      }
+    };
+  }
+
+  private static Class<?> wrap(Class<?> type) {
+    return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+  }
+
+  /**
+   * The compiled path.
+   */
+  @ToString(onlyExplicitlyIncluded = true)
+  static class CompiledPath implements Function<Object, Object> {
+
+    private final Function<Object, Object> function;
+
+    private final Class<?> valueType;
+
+    @ToString.Include
+    private final FieldPath fieldPath;
+
+    /**
+     * The path to the object, that owns the primitive value (only set, if the value is primitive).
+     */
+    private Function<Object, Object> ownerPath;
+
+    /**
+     * The guard of the object, that owns the primitive value.
+     */
+    private Guard ownerGuard;
+
+    /**
+     * The field or getter of the primitive value.
+     */
+    private AccessibleObject accessor;
+
+    /**
+     * Tests whether the value of an element is read by the compiled accessors.
+     */
+    private Predicate<Object> compiled = obj -> false;
+
+    /**
+     * Instantiates a new compiled path.
+     *
+     * @param function the function, that reads the value of an element
+     * @param valueType the declared type of the value
+     * @param fieldPath the field path
+     */
+    CompiledPath(Function<Object, Object> function, Class<?> valueType, FieldPath fieldPath) {
+      this.function = function;
+      this.valueType = valueType;
+      this.fieldPath = fieldPath;
+    }
+
+    /**
+     * Gets the declared type of the value.
+     *
+     * @return the value type
+     */
+    Class<?> getValueType() {
+      return valueType;
+    }
+
+    /**
+     * Determines whether the value of the given element is read by the compiled accessors and not
+     * by the value extractor.
+     *
+     * @param obj the element
+     * @return {@code true}, if the value is read by the compiled accessors
+     */
+    boolean isCompiled(Object obj) {
+      return compiled.test(obj);
+    }
+
+    @Override
+    public Object apply(Object obj) {
+      return function.apply(obj);
+    }
+  }
+
+  /**
+   * The guard of a compiled accessor. It accepts instances of the type, the accessor was compiled
+   * for, as long as the value extractor finds the same field or an override of the same getter on
+   * the class of the instance, so that the compiled accessor reads the same value as the value
+   * extractor. The last accepted class is remembered, so that the accessor is only looked up again,
+   * if the class changes.
+   */
+  private static class Guard {
+
+    private final DefaultValueExtractor valueExtractor;
+
+    private final Class<?> type;
+
+    private final String name;
+
+    private final AccessibleObject accessor;
+
+    private volatile Class<?> accepted;
+
+    /**
+     * Instantiates a new guard.
+     *
+     * @param valueExtractor the value extractor
+     * @param type the type, the accessor was compiled for
+     * @param name the field name
+     * @param accessor the compiled field or getter
+     */
+    Guard(
+        DefaultValueExtractor valueExtractor,
+        Class<?> type,
+        String name,
+        AccessibleObject accessor) {
+      this.valueExtractor = valueExtractor;
+      this.type = type;
+      this.name = name;
+      this.accessor = accessor;
+      this.accepted = type;
+    }
+
+    /**
+     * Determines whether the compiled accessor can read the value of the given object.
+     *
+     * @param obj the object (cannot be {@code null})
+     * @return {@code true}, if the compiled accessor can read the value
+     */
+    boolean accepts(Object obj) {
+      Class<?> clazz = obj.getClass();
+      if (clazz == accepted) {
+        return true;
+      }
+      if (!type.isInstance(obj) || !isSameAccessor(clazz)) {
+        return false;
+      }
+      accepted = clazz;
+      return true;
+    }
+
+    private boolean isSameAccessor(Class<?> clazz) {
+      AccessibleObject found = valueExtractor.findAccessor(clazz, name).orElse(null);
+      if (found == null || found.equals(accessor)) {
+        return found != null;
+      }
+      if (!(found instanceof Method) || !(accessor instanceof Method)) {
+        return false;
+      }
+      Method method = (Method) found;
+      Method overridden = (Method) accessor;
+      return method.getName().equals(overridden.getName())
+          && method.getParameterCount() == 0
+          && !Modifier.isStatic(method.getModifiers())
+          && overridden.getDeclaringClass().isAssignableFrom(method.getDeclaringClass())
+          && isOverridable(overridden, method.getDeclaringClass());
+    }
+
+    private static boolean isOverridable(Method method, Class<?> subclass) {
+      int modifiers = method.getModifiers();
+      if (Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers)) {
+        return false;
+      }
+      if (Modifier.isPublic(modifiers) || Modifier.isProtected(modifiers)) {
+        return true;
+      }
+      Class<?> declaringClass = method.getDeclaringClass();
+      return declaringClass.getClassLoader() == subclass.getClassLoader()
+          && declaringClass.getPackageName().equals(subclass.getPackageName());
+    }
+  }
+
+  /**
+   * The path, that uses the compiled accessors as long as the objects along the path are accepted
+   * by the guards.
+   */
+  private static class GuardedPath implements Function<Object, Object> {
+
+    private final DefaultValueExtractor valueExtractor;
+
+    private final FieldPath fieldPath;
+
+    private final Guard[] guards;
+
+    private final Function<Object, Object>[] accessors;
+
+    /**
+     * Instantiates a new guarded path.
+     *
+     * @param valueExtractor the value extractor for objects, that are not accepted by the guards
+     * @param fieldPath the field path
+     * @param guards the guards of the objects along the path
+     * @param accessors the compiled accessors
+     */
+    GuardedPath(
+        DefaultValueExtractor valueExtractor,
+        FieldPath fieldPath,
+        Guard[] guards,
+        Function<Object, Object>[] accessors) {
+      this.valueExtractor = valueExtractor;
+      this.fieldPath = fieldPath;
+      this.guards = guards;
+      this.accessors = accessors;
+    }
+
+    @Override
+    public Object apply(Object obj) {
+      Object value = obj;
+      for (int i = 0; i < accessors.length && value != null; i++) {
+        value = guards[i].accepts(value)
+            ? accessors[i].apply(value)
+            : valueExtractor.findFieldValue(value, fieldPath.getSegment(i));
+      }
+      return value;
+    }
+
+    /**
+     * Determines whether the value of the given object is read by the compiled accessors only.
+     *
+     * @param obj the object
+     * @return {@code true}, if all objects along the path are accepted by the guards
+     */
+    boolean isCompiled(Object obj) {
+      Object value = obj;
+      for (int i = 0; i < accessors.length && value != null; i++) {
+        if (!guards[i].accepts(value)) {
+          return false;
+        }
+        value = accessors[i].apply(value);
+      }
+      return true;
+    }
+  }
+
+  /**
+   * The comparator, that uses a compiled path.
+   *
+   * @param <T> the element type
+   */
+  @ToString(onlyExplicitlyIncluded = true)
+  private static class TypedValueComparator<T> implements Comparator<T> {
+
+    @ToString.Include
+    private final CompiledPath path;
+
+    @ToString.Include
+    private final ValueComparator valueComparator;
+
+    private final Class<?> valueType;
+
+    private final Comparator<Object> valueOrder;
+
+    private final int nullResult;
+
+    /**
+     * Instantiates a new typed value comparator.
+     *
+     * @param path the compiled path
+     * @param valueComparator the value comparator
+     */
+    TypedValueComparator(CompiledPath path, ValueComparator valueComparator) {
+      this.path = path;
+      this.valueComparator = valueComparator;
+      this.valueType = path.getValueType();
+      this.valueOrder = valueOrder(valueType, valueComparator);
+      this.nullResult = valueComparator.isAsc() == valueComparator.isNullIsFirst() ? -1 : 1;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Object> valueOrder(Class<?> type, ValueComparator comparator) {
+      Comparator order;
+      if (type == String.class && comparator.getCollator() != null) {
+        Collator collator = comparator.getCollator();
+        order = (s1, s2) -> ThreadCollators.get(collator).compare(s1, s2);
+      } else if (type == String.class && comparator.isIgnoreCase()) {
+        order = String.CASE_INSENSITIVE_ORDER;
+      } else if (type.isEnum()) {
+        order = (Comparator<Enum>) (e1, e2) -> e1.ordinal() - e2.ordinal();
+      } else if (Comparable.class.isAssignableFrom(type) && Modifier.isFinal(type.getModifiers())) {
+        order = Comparator.naturalOrder();
+      } else {
+        return null;
+      }
+      return comparator.isAsc() ? order : order.reversed();
+    }
+
+    @Override
+    public int compare(T o1, T o2) {
+      Object v1 = path.apply(o1);
+      Object v2 = path.apply(o2);
+      if (v1 == null) {
+        return v2 == null ? 0 : nullResult;
+      }
+      if (v2 == null) {
+        return -nullResult;
+      }
+      if (valueOrder != null && valueType.isInstance(v1) && valueType.isInstance(v2)) {
+        return valueOrder.compare(v1, v2);
+      }
+      return valueComparator.compareValues(v1, v2);
+    }
+  }
+
+  /**
+   * The base of the comparators, that compare primitive values without boxing them. If the
+   * objects, that own the primitive value, are not of the expected type, the boxed values are
+   * compared by the value comparator.
+   *
+   * @param <T> the element type
+   */
+  @ToString(onlyExplicitlyIncluded = true)
+  private abstract static class PrimitiveValueComparator<T> implements Comparator<T> {
+
+    @ToString.Include
+    private final CompiledPath path;
+
+    @ToString.Include
+    private final ValueComparator valueComparator;
+
+    private final Function<Object, Object> ownerPath;
+
+    private final Guard ownerGuard;
+
+    /**
+     * The direction.
+     */
+    final boolean asc;
+
+    private final int nullResult;
+
+    /**
+     * Instantiates a new primitive value comparator.
+     *
+     * @param path the compiled path
+     * @param valueComparator the value comparator
+     */
+    PrimitiveValueComparator(CompiledPath path, ValueComparator valueComparator) {
+      this.path = path;
+      this.valueComparator = valueComparator;
+      this.ownerPath = path.ownerPath;
+      this.ownerGuard = path.ownerGuard;
+      this.asc = valueComparator.isAsc();
+      this.nullResult = valueComparator.isAsc() == valueComparator.isNullIsFirst() ? -1 : 1;
+    }
+
+    @Override
+    public int compare(T o1, T o2) {
+      Object owner1 = ownerPath.apply(o1);
+      Object owner2 = ownerPath.apply(o2);
+      if (owner1 == null) {
+        return owner2 == null ? 0 : nullResult;
+      }
+      if (owner2 == null) {
+        return -nullResult;
+      }
+      if (ownerGuard.accepts(owner1) && ownerGuard.accepts(owner2)) {
+        return compareOwners(owner1, owner2);
+      }
+      return valueComparator.compareValues(path.apply(o1), path.apply(o2));
+    }
+
+    /**
+     * Compares the primitive values of the given owners.
+     *
+     * @param owner1 the first owner
+     * @param owner2 the second owner
+     * @return the comparison result
+     */
+    abstract int compareOwners(Object owner1, Object owner2);
+  }
+
+  /**
+   * The comparator of integral values and characters.
+   *
+   * @param <T> the element type
+   */
+  private static class LongValueComparator<T> extends PrimitiveValueComparator<T> {
+
+    private final ToLongFunction<Object> accessor;
+
+    private final boolean difference;
+
+    /**
+     * Instantiates a new long value comparator.
+     *
+     * @param path the compiled path
+     * @param valueComparator the value comparator
+     * @param accessor the accessor of the value
+     * @param difference if {@code true}, the difference of the values is returned (as {@link
+     *     Short#compareTo(Short)}, {@link Byte#compareTo(Byte)} and {@link
+     *     Character#compareTo(Character)} do)
+     */
+    LongValueComparator(
+        CompiledPath path,
+        ValueComparator valueComparator,
+        ToLongFunction<Object> accessor,
+        boolean difference) {
+      super(path, valueComparator);
+      this.accessor = accessor;
+      this.difference = difference;
+    }
+
+    @Override
+    int compareOwners(Object owner1, Object owner2) {
+      long v1 = accessor.applyAsLong(asc ? owner1 : owner2);
+      long v2 = accessor.applyAsLong(asc ? owner2 : owner1);
+      return difference ? (int) (v1 - v2) : Long.compare(v1, v2);
+    }
+  }
+
+  /**
+   * The comparator of floating point values.
+   *
+   * @param <T> the element type
+   */
+  private static class DoubleValueComparator<T> extends PrimitiveValueComparator<T> {
+
+    private final ToDoubleFunction<Object> accessor;
+
+    /**
+     * Instantiates a new double value comparator.
+     *
+     * @param path the compiled path
+     * @param valueComparator the value comparator
+     * @param accessor the accessor of the value
+     */
+    DoubleValueComparator(
+        CompiledPath path,
+        ValueComparator valueComparator,
+        ToDoubleFunction<Object> accessor) {
+      super(path, valueComparator);
+      this.accessor = accessor;
+    }
+
+    @Override
+    int compareOwners(Object owner1, Object owner2) {
+      double v1 = accessor.applyAsDouble(asc ? owner1 : owner2);
+      double v2 = accessor.applyAsDouble(asc ? owner2 : owner1);
+      return Double.compare(v1, v2);
+    }
+  }
+
+}
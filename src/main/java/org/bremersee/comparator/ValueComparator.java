@@ -16,41 +16,51 @@
 
 package org.bremersee.comparator;
 
+import java.text.Collator;
 import java.util.Comparator;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.ToString;
 import org.bremersee.comparator.model.SortOrder;
 
 /**
  * The value comparator extracts field value of the specified field name or path and uses the
  * specified description (ascending or descending, case sensitive or insensitive and 'null is
- * first') for sorting.
+ * first') for sorting. If a collator is present, strings are compared by the collator.
+ *
+ * <p>A value comparator is thread safe, if its value extractor is thread safe. Each thread
+ * compares strings with its own clone of the collator, because the methods of a {@link
+ * java.text.RuleBasedCollator} are synchronized.
  *
  * @author Christian Bremer
  */
 @ToString
+@Getter(AccessLevel.PACKAGE)
 public class ValueComparator implements Comparator<Object> {
 
   private final ValueExtractor valueExtractor;
 
   private final String field;
 
+  @ToString.Exclude
+  private final FieldPath fieldPath;
+
   private final boolean asc;
 
   private final boolean ignoreCase;
 
   private final boolean nullIsFirst;
 
+  @ToString.Exclude
+  private final Collator collator;
+
   /**
    * Instantiates a new value comparator.
    *
    * @param sortOrder the sort order (cannot be {@code null})
    */
   public ValueComparator(SortOrder sortOrder) {
-    this(sortOrder.getField(),
-        sortOrder.isAsc(),
-        sortOrder.isIgnoreCase(),
-        sortOrder.isNullIsFirst(),
-        null);
+    this(sortOrder, null);
   }
 
   /**
@@ -64,6 +74,7 @@ public class ValueComparator implements Comparator<Object> {
         sortOrder.isAsc(),
         sortOrder.isIgnoreCase(),
         sortOrder.isNullIsFirst(),
+        sortOrder.createCollator(),
         valueExtractor);
   }
 
@@ -99,18 +110,55 @@ public class ValueComparator implements Comparator<Object> {
       boolean ignoreCase,
       boolean nullIsFirst,
       ValueExtractor valueExtractor) {
+    this(field, asc, ignoreCase, nullIsFirst, null, valueExtractor);
+  }
+
+  /**
+   * Instantiates a new value comparator, that compares strings with the given collator.
+   *
+   * @param field the field name or path
+   * @param asc ascending or descending
+   * @param ignoreCase case insensitive or sensitive (it is not used for strings, if a collator is
+   *     present)
+   * @param nullIsFirst null is first
+   * @param collator the collator (can be {@code null})
+   * @param valueExtractor a custom value extractor (if it is {@code null}, a default will be
+   *     used)
+   */
+  public ValueComparator(
+      String field,
+      boolean asc,
+      boolean ignoreCase,
+      boolean nullIsFirst,
+      Collator collator,
+      ValueExtractor valueExtractor) {
     this.field = field;
+    this.fieldPath = FieldPath.of(field);
     this.asc = asc;
     this.ignoreCase = ignoreCase;
     this.nullIsFirst = nullIsFirst;
-    this.valueExtractor = valueExtractor != null ? valueExtractor : new DefaultValueExtractor();
+    this.collator = collator;
+    this.valueExtractor = valueExtractor != null
+        ? valueExtractor
+        : DefaultValueExtractor.DEFAULT;
   }
 
   @Override
   public int compare(Object o1, Object o2) {
-    final Object v1 = valueExtractor.findValue(o1, field);
-    final Object v2 = valueExtractor.findValue(o2, field);
+    final Object v1 = DefaultValueExtractor.extractValue(valueExtractor, o1, fieldPath);
+    final Object v2 = DefaultValueExtractor.extractValue(valueExtractor, o2, fieldPath);
+    return compareValues(v1, v2);
+  }
 
+  /**
+   * Compares the given values, that are already extracted from the objects, with the description
+   * of this comparator.
+   *
+   * @param v1 the first value
+   * @param v2 the second value
+   * @return the comparison result
+   */
+  int compareValues(Object v1, Object v2) {
     if (v1 == null && v2 == null) {
       return 0;
     }
@@ -129,6 +177,11 @@ public class ValueComparator implements Comparator<Object> {
       }
     }
 
+    if (collator != null && v1 instanceof String && v2 instanceof String) {
+      Collator threadCollator = ThreadCollators.get(collator);
+      return asc ? threadCollator.compare(v1, v2) : threadCollator.compare(v2, v1);
+    }
+
     if (asc && v1 instanceof Comparable) {
       if (ignoreCase && v1 instanceof String && v2 instanceof String) {
         return ((String) v1).compareToIgnoreCase((String) v2);
@@ -40,6 +40,39 @@ public interface ValueExtractor {
    */
   Object findValue(Object obj, String field);
 
+  /**
+   * Find the value of the given parsed field path of the given object. The comparators of this
+   * library call this method with a field path, that was parsed when the comparator was created,
+   * if the value extractor is a {@link DefaultValueExtractor} or a {@link MemoizingValueExtractor}
+   * (or a subclass, that does not override {@link #findValue(Object, String)}). Any other value
+   * extractor is called with {@link #findValue(Object, String)} as before.
+   *
+   * <p>The default implementation calls {@link #findValue(Object, String)} with the source of the
+   * field path.
+   *
+   * @param obj the object
+   * @param fieldPath the field path
+   * @return the object
+   * @throws ValueExtractorException if no field nor method is found
+   */
+  default Object findValueByPath(Object obj, FieldPath fieldPath) {
+    return findValue(obj, fieldPath != null ? fieldPath.getSource() : null);
+  }
+
+  /**
+   * Checks whether this value extractor can be called by several threads at the same time. Only
+   * then the values are extracted in parallel, for example by {@link
+   * Sorter#parallelSort(java.util.List, org.bremersee.comparator.model.SortOrders,
+   * ValueExtractor)}.
+   *
+   * <p>The default implementation returns {@code false}.
+   *
+   * @return {@code true} if this value extractor is thread safe, otherwise {@code false}
+   */
+  default boolean isThreadSafe() {
+    return false;
+  }
+
   /**
    * Find field with the given name of the specified class.
    *
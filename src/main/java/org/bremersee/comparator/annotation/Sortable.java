@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a type, whose field accessors are generated at build time by the {@link
+ * org.bremersee.comparator.processor.SortableProcessor}. The generated accessors are used by the
+ * comparators, that are built for this type with {@link
+ * org.bremersee.comparator.ComparatorBuilder#build(Class)}, so no reflection is needed.
+ *
+ * <p>An accessor reads a field, that is not private, or calls a getter, that is not private. The
+ * field or getter is searched as the {@link org.bremersee.comparator.DefaultValueExtractor} does:
+ * the field name first, then the method names of
+ * {@link org.bremersee.comparator.ValueExtractor#getPossibleMethodNames(String)}. If the field
+ * exists, but cannot be read by the generated code (for example because it is private), no
+ * accessor is generated for the field name or path, because a getter may return another value
+ * than the field. Such a field is read by reflection like the default value extractor does. The
+ * same applies to the first method, that the default value extractor finds, if it is private or
+ * static. Duplicate field names or paths are generated once.
+ *
+ * <p>For example:
+ * <pre>
+ * &#64;Sortable({"lastName", "firstName", "address.city"})
+ * public class Person {
+ *   ...
+ * }
+ * </pre>
+ *
+ * @author Christian Bremer
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Sortable {
+
+  /**
+   * The field names or paths, that can be used for sorting. If it is empty, all fields and getters
+   * of the type, that are not private, can be used (but no paths).
+   *
+   * @return the field names or paths
+   */
+  String[] value() default {};
+
+}
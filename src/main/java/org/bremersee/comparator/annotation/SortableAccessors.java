@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.annotation;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The field accessors of a type, that is annotated with {@link Sortable}. Implementations are
+ * generated by the {@link org.bremersee.comparator.processor.SortableProcessor}.
+ *
+ * @param <T> the type
+ * @author Christian Bremer
+ */
+public interface SortableAccessors<T> {
+
+  /**
+   * Gets the type.
+   *
+   * @return the type
+   */
+  Class<T> getType();
+
+  /**
+   * Gets the accessors. The key is the normalized field name or path (see {@link
+   * org.bremersee.comparator.FieldPath}).
+   *
+   * @return the accessors
+   */
+  Map<String, Function<T, Object>> getAccessors();
+
+  /**
+   * Gets the declared types of the values, primitive types are boxed. The key is the normalized
+   * field name or path.
+   *
+   * @return the value types
+   */
+  Map<String, Class<?>> getValueTypes();
+
+}
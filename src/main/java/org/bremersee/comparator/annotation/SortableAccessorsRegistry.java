@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.annotation;
+
+import java.util.Optional;
+
+/**
+ * The registry of the generated {@link SortableAccessors}. The accessors of a type are loaded
+ * once, the first time they are requested.
+ *
+ * @author Christian Bremer
+ */
+public abstract class SortableAccessorsRegistry {
+
+  /**
+   * The suffix of the name of the generated class.
+   */
+  public static final String CLASS_NAME_SUFFIX = "SortableAccessors";
+
+  private static final ClassValue<Optional<SortableAccessors<?>>> REGISTRY = new ClassValue<>() {
+    @Override
+    protected Optional<SortableAccessors<?>> computeValue(Class<?> type) {
+      return load(type);
+    }
+  };
+
+  private SortableAccessorsRegistry() {
+  }
+
+  /**
+   * Find the generated accessors of the given type.
+   *
+   * @param <T> the type parameter
+   * @param type the type
+   * @return the accessors; empty, if the type is not annotated with {@link Sortable} or if the
+   *     accessors were not generated
+   */
+  public static <T> Optional<SortableAccessors<T>> find(Class<T> type) {
+    if (type == null) {
+      return Optional.empty();
+    }
+    //noinspection unchecked,rawtypes
+    return (Optional) REGISTRY.get(type);
+  }
+
+  /**
+   * Gets the name of the generated class of the given type.
+   *
+   * @param binaryName the binary name of the type (for example {@code org.example.Outer$Inner})
+   * @return the name of the generated class (for example {@code
+   *     org.example.Outer_InnerSortableAccessors})
+   */
+  public static String getAccessorsClassName(String binaryName) {
+    int index = binaryName.lastIndexOf('.');
+    return binaryName.substring(0, index + 1)
+        + binaryName.substring(index + 1).replace('$', '_')
+        + CLASS_NAME_SUFFIX;
+  }
+
+  private static Optional<SortableAccessors<?>> load(Class<?> type) {
+    if (!type.isAnnotationPresent(Sortable.class)) {
+      return Optional.empty();
+    }
+    try {
+      Class<?> accessorsClass = Class.forName(
+          getAccessorsClassName(type.getName()), true, type.getClassLoader());
+      SortableAccessors<?> accessors = (SortableAccessors<?>) accessorsClass
+          .getDeclaredConstructor()
+          .newInstance();
+      return accessors.getType() == type ? Optional.of(accessors) : Optional.empty();
+
+    } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+      return Optional.empty();
+    }
+  }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.cache;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The statistics of a cache.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class CacheStatistics {
+
+  private final long hitCount;
+
+  private final long missCount;
+
+  private final long evictionCount;
+
+  private final int size;
+
+  /**
+   * Instantiates new cache statistics.
+   *
+   * @param hitCount the number of hits
+   * @param missCount the number of misses
+   * @param evictionCount the number of evicted entries
+   * @param size the current number of entries
+   */
+  public CacheStatistics(long hitCount, long missCount, long evictionCount, int size) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.size = size;
+  }
+
+  /**
+   * Gets the number of requests (hits and misses).
+   *
+   * @return the number of requests
+   */
+  public long getRequestCount() {
+    return hitCount + missCount;
+  }
+
+  /**
+   * Gets the ratio of hits and requests. If there was no request, the hit rate is {@code 1.0}.
+   *
+   * @return the hit rate
+   */
+  public double getHitRate() {
+    long requestCount = getRequestCount();
+    return requestCount == 0L ? 1.0 : (double) hitCount / requestCount;
+  }
+
+}
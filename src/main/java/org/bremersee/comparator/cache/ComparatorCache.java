@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.cache;
+
+import java.util.Comparator;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.bremersee.comparator.ComparatorBuilder;
+import org.bremersee.comparator.ValueExtractor;
+import org.bremersee.comparator.model.SortOrders;
+
+/**
+ * The comparator cache keeps the comparators, that are built for sort orders, an element type and
+ * a value extractor, so that the same sort orders don't have to be resolved and compiled again and
+ * again (for example on every request of a web service):
+ * <pre>
+ * private final ComparatorCache comparatorCache = new ComparatorCache();
+ *
+ * public List&lt;Employee&gt; findEmployees(SortOrders sortOrders) {
+ *   List&lt;Employee&gt; employees = ...
+ *   employees.sort(comparatorCache.getComparator(sortOrders, Employee.class));
+ *   return employees;
+ * }
+ * </pre>
+ *
+ * <p>The comparators are built with {@link ComparatorBuilder#build(Class)}. The cache evicts a
+ * comparator, that was not used recently, when it is full (see {@link LruCache}). A cached
+ * comparator is used by several threads, so the value extractor must be thread safe. The keys hold
+ * strong references to the element types, so a class cannot be unloaded, while one of its
+ * comparators is cached.
+ *
+ * @author Christian Bremer
+ */
+@ToString
+public class ComparatorCache {
+
+  /**
+   * The default maximum number of cached comparators.
+   */
+  public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+  private final LruCache<Key, Comparator<?>> cache;
+
+  /**
+   * Instantiates a new comparator cache with the default maximum size.
+   */
+  public ComparatorCache() {
+    this(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * Instantiates a new comparator cache.
+   *
+   * @param maximumSize the maximum number of cached comparators
+   */
+  public ComparatorCache(int maximumSize) {
+    this.cache = new LruCache<>(maximumSize);
+  }
+
+  /**
+   * Gets the comparator of the given sort orders and element type.
+   *
+   * @param <T> the element type
+   * @param sortOrders the sort orders (can be {@code null})
+   * @param type the element type (can be {@code null} - then the comparator is not specialized)
+   * @return the comparator
+   */
+  public <T> Comparator<T> getComparator(SortOrders sortOrders, Class<T> type) {
+    return getComparator(sortOrders, type, null);
+  }
+
+  /**
+   * Gets the comparator of the given sort orders, element type and value extractor.
+   *
+   * @param <T> the element type
+   * @param sortOrders the sort orders (can be {@code null})
+   * @param type the element type (can be {@code null} - then the comparator is not specialized)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @return the comparator
+   */
+  public <T> Comparator<T> getComparator(
+      SortOrders sortOrders,
+      Class<T> type,
+      ValueExtractor valueExtractor) {
+
+    //noinspection unchecked
+    return (Comparator<T>) cache.get(
+        new Key(sortOrders, type, valueExtractor),
+        key -> ComparatorBuilder.newInstance()
+            .addAll(sortOrders, valueExtractor)
+            .build(type));
+  }
+
+  /**
+   * Removes all cached comparators.
+   */
+  public void clear() {
+    cache.clear();
+  }
+
+  /**
+   * Gets the statistics of this cache.
+   *
+   * @return the statistics
+   */
+  public CacheStatistics getStatistics() {
+    return cache.getStatistics();
+  }
+
+  /**
+   * The key of a cached comparator.
+   */
+  @EqualsAndHashCode
+  @ToString
+  private static final class Key {
+
+    private final SortOrders sortOrders;
+
+    private final Class<?> type;
+
+    private final ValueExtractor valueExtractor;
+
+    /**
+     * Instantiates a new key.
+     *
+     * @param sortOrders the sort orders
+     * @param type the element type
+     * @param valueExtractor the value extractor
+     */
+    Key(SortOrders sortOrders, Class<?> type, ValueExtractor valueExtractor) {
+      this.sortOrders = sortOrders;
+      this.type = type;
+      this.valueExtractor = valueExtractor;
+    }
+  }
+
+}
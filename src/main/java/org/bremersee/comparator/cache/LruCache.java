@@ -0,0 +1,236 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.cache;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import lombok.ToString;
+
+/**
+ * A bounded cache, that evicts an entry, that was not used recently, when it is full. The least
+ * recently used entry is approximated with the CLOCK algorithm: the entries are kept in a ring and
+ * are marked, when they are read; a hand sweeps the ring, clears the marks and evicts the first
+ * entry, that is not marked.
+ *
+ * <p>It can be used by several threads. The entries are kept in a {@link ConcurrentHashMap}, so
+ * reading a cached value does not lock and only sets the mark of the entry. Only adding a new entry
+ * takes a lock, that is held while the entry is put into the ring (moving the hand is amortized
+ * constant). The values are computed outside of any lock, so a value may be computed more than
+ * once by concurrent threads, but only the first one is kept. {@code null} values are not cached.
+ *
+ * <p>A cache, whose keys come from clients (like request parameters), can admit only keys, that
+ * were requested before: the hash codes of the keys, that were not admitted, are remembered in a
+ * small table (that may forget or confuse keys), and a key is cached, when its hash code is found
+ * there. So a stream of distinct keys, that are requested only once, does not evict the cached
+ * entries.
+ *
+ * <p>The cache holds strong references to its keys and values. If a key contains a {@link Class}
+ * (like the keys of the {@link ComparatorCache}), the class and its class loader cannot be unloaded
+ * until the entry is evicted or the cache is cleared.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Christian Bremer
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class LruCache<K, V> {
+
+  @ToString.Include
+  private final int maximumSize;
+
+  private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+
+  private final Node<K, V>[] ring;
+
+  private int hand;
+
+  private final int[] requested;
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  private final LongAdder evictionCount = new LongAdder();
+
+  /**
+   * Instantiates a new lru cache.
+   *
+   * @param maximumSize the maximum number of entries
+   * @throws IllegalArgumentException if the maximum size is less than one
+   */
+  public LruCache(int maximumSize) {
+    this(maximumSize, false);
+  }
+
+  /**
+   * Instantiates a new lru cache.
+   *
+   * @param maximumSize the maximum number of entries
+   * @param admittingRequestedKeys if {@code true}, a key is only cached, when it is requested the
+   *     second time; otherwise it is cached, when it is requested the first time
+   * @throws IllegalArgumentException if the maximum size is less than one
+   */
+  public LruCache(int maximumSize, boolean admittingRequestedKeys) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("Maximum size must be greater than zero.");
+    }
+    this.maximumSize = maximumSize;
+    @SuppressWarnings("unchecked")
+    Node<K, V>[] nodes = (Node<K, V>[]) new Node[maximumSize];
+    this.ring = nodes;
+    this.requested = admittingRequestedKeys
+        ? new int[Integer.highestOneBit(Math.min(maximumSize, 1 << 20)) << 2]
+        : null;
+  }
+
+  /**
+   * Gets the cached value of the given key or computes and caches it.
+   *
+   * @param key the key
+   * @param mappingFunction the function, that computes the value of the key
+   * @return the value
+   */
+  public V get(K key, Function<? super K, ? extends V> mappingFunction) {
+    Objects.requireNonNull(mappingFunction, "Mapping function must be present.");
+    V value = getIfPresent(key);
+    if (value != null) {
+      hitCount.increment();
+      return value;
+    }
+    missCount.increment();
+    V computed = mappingFunction.apply(key);
+    if (computed == null || !admit(key)) {
+      return computed;
+    }
+    Node<K, V> node = new Node<>(key, computed);
+    synchronized (ring) {
+      Node<K, V> existing = entries.putIfAbsent(key, node);
+      if (existing != null) {
+        return existing.value;
+      }
+      while (ring[hand] != null && ring[hand].used) {
+        ring[hand].used = false;
+        hand = (hand + 1) % ring.length;
+      }
+      if (ring[hand] != null && entries.remove(ring[hand].key, ring[hand])) {
+        evictionCount.increment();
+      }
+      ring[hand] = node;
+      hand = (hand + 1) % ring.length;
+    }
+    return computed;
+  }
+
+  /**
+   * Determines whether the given key is cached. If only requested keys are admitted, the hash code
+   * of the key is looked up and otherwise remembered. The table is read and written without a lock,
+   * because a lost or confused hash code only decides, whether a key is cached a request later or
+   * earlier.
+   *
+   * @param key the key
+   * @return {@code true}, if the key is cached
+   */
+  private boolean admit(K key) {
+    if (requested == null) {
+      return true;
+    }
+    int hash = Objects.hashCode(key);
+    int index = (hash ^ (hash >>> 16)) & (requested.length - 1);
+    if (requested[index] == hash) {
+      return true;
+    }
+    requested[index] = hash;
+    return false;
+  }
+
+  /**
+   * Gets the cached value of the given key without computing it.
+   *
+   * @param key the key
+   * @return the value or {@code null}
+   */
+  public V getIfPresent(K key) {
+    Node<K, V> node = entries.get(key);
+    if (node == null) {
+      return null;
+    }
+    if (!node.used) {
+      node.used = true;
+    }
+    return node.value;
+  }
+
+  /**
+   * Gets the number of cached entries.
+   *
+   * @return the number of cached entries
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes all entries. The statistics are not reset.
+   */
+  public void clear() {
+    synchronized (ring) {
+      entries.clear();
+      Arrays.fill(ring, null);
+      hand = 0;
+    }
+  }
+
+  /**
+   * Gets the statistics of this cache.
+   *
+   * @return the statistics
+   */
+  public CacheStatistics getStatistics() {
+    return new CacheStatistics(
+        hitCount.sum(), missCount.sum(), evictionCount.sum(), size());
+  }
+
+  /**
+   * A cached entry of the ring.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   */
+  private static final class Node<K, V> {
+
+    private final K key;
+
+    private final V value;
+
+    private volatile boolean used;
+
+    /**
+     * Instantiates a new node.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    Node(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.external;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.immutables.value.Value;
+
+/**
+ * The properties of the {@link ExternalSorter}.
+ *
+ * @author Christian Bremer
+ */
+@Value.Immutable
+public interface ExternalSortProperties {
+
+  /**
+   * Properties builder.
+   *
+   * @return the builder
+   */
+  static ImmutableExternalSortProperties.Builder builder() {
+    return ImmutableExternalSortProperties.builder();
+  }
+
+  /**
+   * Default external sort properties.
+   *
+   * @return the external sort properties
+   */
+  static ExternalSortProperties defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Gets the memory budget of a run in bytes. A run is sorted in memory and written to a temporary
+   * file, when the estimated size of its records (see
+   * {@link RecordSerializer#estimateSize(Object)}) reaches the budget.
+   *
+   * @return the memory budget
+   */
+  @Value.Default
+  default long getMemoryBudget() {
+    return 64L * 1024L * 1024L;
+  }
+
+  /**
+   * Gets the maximum number of records of a run.
+   *
+   * @return the run size
+   */
+  @Value.Default
+  default int getRunSize() {
+    return 500_000;
+  }
+
+  /**
+   * Gets the maximum number of runs, that are merged at once. If there are more runs, they are
+   * merged in several passes.
+   *
+   * @return the merge fan-in
+   */
+  @Value.Default
+  default int getMergeFanIn() {
+    return 64;
+  }
+
+  /**
+   * Gets the size of the buffer of each temporary file in bytes.
+   *
+   * @return the buffer size
+   */
+  @Value.Default
+  default int getBufferSize() {
+    return 64 * 1024;
+  }
+
+  /**
+   * Gets the directory of the temporary files.
+   *
+   * @return the temporary directory
+   */
+  @Value.Default
+  default Path getTempDirectory() {
+    return Paths.get(System.getProperty("java.io.tmpdir"));
+  }
+
+  /**
+   * Checks the properties.
+   */
+  @Value.Check
+  default void check() {
+    if (getMemoryBudget() <= 0L || getRunSize() <= 0 || getBufferSize() <= 0) {
+      throw new IllegalStateException(
+          "Memory budget, run size and buffer size must be greater than zero.");
+    }
+    if (getMergeFanIn() < 2) {
+      throw new IllegalStateException("Merge fan-in must be at least two.");
+    }
+  }
+
+}
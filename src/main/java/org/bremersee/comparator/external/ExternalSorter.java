@@ -0,0 +1,318 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.external;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import lombok.ToString;
+import org.bremersee.comparator.ComparatorBuilder;
+import org.bremersee.comparator.SortedMerge;
+import org.bremersee.comparator.model.SortOrders;
+
+/**
+ * The external sorter sorts data sets, that are larger than the heap. The records are read into
+ * runs, that fit into the {@link ExternalSortProperties#getMemoryBudget() memory budget}. Each run
+ * is sorted in memory and written to a temporary file by the {@link RecordSerializer}. Then the
+ * runs are merged with the {@link SortedMerge}, at most
+ * {@link ExternalSortProperties#getMergeFanIn()} at once. The temporary files are deleted, when
+ * they are merged or when the sort fails.
+ *
+ * <p>The sort is stable: records, that are equal by the comparator, keep the order of the source.
+ * If all records fit into one run, nothing is written to disk.
+ *
+ * @param <T> the record type
+ * @author Christian Bremer
+ */
+@ToString
+public class ExternalSorter<T> {
+
+  private final Comparator<? super T> comparator;
+
+  private final RecordSerializer<T> serializer;
+
+  private final ExternalSortProperties properties;
+
+  /**
+   * Instantiates a new external sorter, that sorts by the comparator chain of the given sort
+   * orders.
+   *
+   * @param sortOrders the sort orders
+   * @param serializer the serializer of the records
+   * @param properties the properties (can be {@code null}, then the defaults are used)
+   */
+  public ExternalSorter(
+      SortOrders sortOrders,
+      RecordSerializer<T> serializer,
+      ExternalSortProperties properties) {
+    this(ComparatorBuilder.newInstance().addAll(sortOrders).build(), serializer, properties);
+  }
+
+  /**
+   * Instantiates a new external sorter.
+   *
+   * @param comparator the comparator
+   * @param serializer the serializer of the records
+   * @param properties the properties (can be {@code null}, then the defaults are used)
+   */
+  public ExternalSorter(
+      Comparator<? super T> comparator,
+      RecordSerializer<T> serializer,
+      ExternalSortProperties properties) {
+    this.comparator = Objects.requireNonNull(comparator, "Comparator must be present.");
+    this.serializer = Objects.requireNonNull(serializer, "Serializer must be present.");
+    this.properties = properties != null ? properties : ExternalSortProperties.defaults();
+  }
+
+  /**
+   * Sorts the records of the given source and passes them in sorted order to the given sink.
+   *
+   * @param source the source
+   * @param sink the sink
+   * @return the number of records
+   * @throws IOException if writing or reading a temporary file fails
+   */
+  public long sort(Iterator<? extends T> source, Consumer<? super T> sink) throws IOException {
+    List<Path> runs = new ArrayList<>();
+    try {
+      List<T> run = new ArrayList<>();
+      long count = 0L;
+      long runBytes = 0L;
+      while (source.hasNext()) {
+        T record = source.next();
+        run.add(record);
+        count++;
+        runBytes += serializer.estimateSize(record);
+        if (run.size() >= properties.getRunSize() || runBytes >= properties.getMemoryBudget()) {
+          run.sort(comparator);
+          runs.add(writeRun(run));
+          run.clear();
+          runBytes = 0L;
+        }
+      }
+      run.sort(comparator);
+      if (runs.isEmpty()) {
+        run.forEach(sink);
+        return count;
+      }
+      if (!run.isEmpty()) {
+        runs.add(writeRun(run));
+        run.clear();
+      }
+      while (runs.size() > properties.getMergeFanIn()) {
+        runs = mergePass(runs);
+      }
+      merge(runs, sink::accept);
+      return count;
+
+    } finally {
+      for (Path run : runs) {
+        Files.deleteIfExists(run);
+      }
+    }
+  }
+
+  private Path writeRun(List<T> run) throws IOException {
+    Path file = Files.createTempFile(properties.getTempDirectory(), "external-sort-", ".run");
+    try (RunWriter writer = new RunWriter(file)) {
+      for (T record : run) {
+        writer.write(record);
+      }
+    }
+    return file;
+  }
+
+  /**
+   * Merges the runs in groups of the fan-in. The groups consist of neighbouring runs, so that the
+   * sort stays stable.
+   *
+   * @param runs the runs
+   * @return the merged runs
+   * @throws IOException if merging fails
+   */
+  private List<Path> mergePass(List<Path> runs) throws IOException {
+    List<Path> merged = new ArrayList<>();
+    try {
+      for (int i = 0; i < runs.size(); i += properties.getMergeFanIn()) {
+        List<Path> group = runs.subList(i, Math.min(runs.size(), i + properties.getMergeFanIn()));
+        Path file = Files.createTempFile(properties.getTempDirectory(), "external-sort-", ".run");
+        merged.add(file);
+        try (RunWriter writer = new RunWriter(file)) {
+          merge(group, writer::write);
+        }
+        for (Path run : group) {
+          Files.deleteIfExists(run);
+        }
+      }
+      return merged;
+
+    } catch (IOException | RuntimeException e) {
+      for (Path file : merged) {
+        Files.deleteIfExists(file);
+      }
+      throw e;
+    }
+  }
+
+  private void merge(List<Path> runs, RecordConsumer<T> sink) throws IOException {
+    List<RunReader> readers = new ArrayList<>();
+    try {
+      for (Path run : runs) {
+        readers.add(new RunReader(run));
+      }
+      Iterator<T> merged = SortedMerge.iterator(readers, comparator, false);
+      while (true) {
+        T record;
+        try {
+          if (!merged.hasNext()) {
+            return;
+          }
+          record = merged.next();
+        } catch (UncheckedIOException e) {
+          throw e.getCause();
+        }
+        sink.accept(record);
+      }
+
+    } finally {
+      for (RunReader reader : readers) {
+        reader.close();
+      }
+    }
+  }
+
+  /**
+   * The consumer of records, that may throw an {@link IOException}.
+   *
+   * @param <T> the record type
+   */
+  private interface RecordConsumer<T> {
+
+    /**
+     * Accepts the given record.
+     *
+     * @param record the record
+     * @throws IOException if writing the record fails
+     */
+    void accept(T record) throws IOException;
+  }
+
+  /**
+   * The writer of a run.
+   */
+  private class RunWriter implements Closeable {
+
+    private final DataOutputStream out;
+
+    /**
+     * Instantiates a new run writer.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be opened
+     */
+    RunWriter(Path file) throws IOException {
+      this.out = new DataOutputStream(new BufferedOutputStream(
+          Files.newOutputStream(file), properties.getBufferSize()));
+    }
+
+    /**
+     * Writes the given record.
+     *
+     * @param record the record
+     * @throws IOException if writing fails
+     */
+    void write(T record) throws IOException {
+      out.writeBoolean(true);
+      serializer.write(record, out);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try (out) {
+        out.writeBoolean(false);
+      }
+    }
+  }
+
+  /**
+   * The reader of a run. Reading errors are thrown as {@link UncheckedIOException}.
+   */
+  private class RunReader implements Iterator<T>, Closeable {
+
+    private final DataInputStream in;
+
+    private boolean marked;
+
+    private boolean hasNext;
+
+    /**
+     * Instantiates a new run reader.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be opened
+     */
+    RunReader(Path file) throws IOException {
+      this.in = new DataInputStream(new BufferedInputStream(
+          Files.newInputStream(file), properties.getBufferSize()));
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (!marked) {
+        try {
+          hasNext = in.readBoolean();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        marked = true;
+      }
+      return hasNext;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      marked = false;
+      try {
+        return serializer.read(in);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+}
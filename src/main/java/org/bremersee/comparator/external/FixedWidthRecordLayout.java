@@ -0,0 +1,217 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.external;
+
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The layout of a file of fixed-width binary records: the size of a record, the byte order and
+ * the named fields with their offset and type. The names of the fields are the field names of the
+ * sort orders, that are used by the {@link MappedRecordFileSorter}.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class FixedWidthRecordLayout {
+
+  private final int recordSize;
+
+  private final ByteOrder byteOrder;
+
+  private final Map<String, Field> fields;
+
+  private FixedWidthRecordLayout(int recordSize, ByteOrder byteOrder, Map<String, Field> fields) {
+    this.recordSize = recordSize;
+    this.byteOrder = byteOrder;
+    this.fields = Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+  }
+
+  /**
+   * Creates a new builder.
+   *
+   * @param recordSize the size of a record in bytes
+   * @return the builder
+   */
+  public static Builder builder(int recordSize) {
+    return new Builder(recordSize);
+  }
+
+  /**
+   * Finds the field with the given name.
+   *
+   * @param name the name
+   * @return the field
+   */
+  public Optional<Field> findField(String name) {
+    return Optional.ofNullable(fields.get(name));
+  }
+
+  /**
+   * The type of a field.
+   */
+  public enum FieldType {
+
+    /**
+     * A signed byte.
+     */
+    BYTE(1),
+
+    /**
+     * A signed short.
+     */
+    SHORT(2),
+
+    /**
+     * A signed int.
+     */
+    INT(4),
+
+    /**
+     * A signed long.
+     */
+    LONG(8),
+
+    /**
+     * A float.
+     */
+    FLOAT(4),
+
+    /**
+     * A double.
+     */
+    DOUBLE(8),
+
+    /**
+     * An ASCII string of a fixed length, that is padded with zeros. It is compared byte by byte as
+     * unsigned values; if the case is ignored, the letters {@code A} to {@code Z} are compared as
+     * lower case letters.
+     */
+    ASCII(-1);
+
+    private final int size;
+
+    FieldType(int size) {
+      this.size = size;
+    }
+  }
+
+  /**
+   * A field of the record.
+   */
+  @Getter
+  @ToString
+  @EqualsAndHashCode
+  public static final class Field {
+
+    private final int offset;
+
+    private final FieldType type;
+
+    private final int length;
+
+    private Field(int offset, FieldType type, int length) {
+      this.offset = offset;
+      this.type = type;
+      this.length = length;
+    }
+  }
+
+  /**
+   * The builder of a record layout.
+   */
+  public static final class Builder {
+
+    private final int recordSize;
+
+    private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+
+    private Builder(int recordSize) {
+      if (recordSize <= 0) {
+        throw new IllegalArgumentException("Record size must be greater than zero.");
+      }
+      this.recordSize = recordSize;
+    }
+
+    /**
+     * Sets the byte order of the numbers (the default is big endian).
+     *
+     * @param byteOrder the byte order
+     * @return the builder
+     */
+    public Builder byteOrder(ByteOrder byteOrder) {
+      this.byteOrder = Objects.requireNonNull(byteOrder, "Byte order must be present.");
+      return this;
+    }
+
+    /**
+     * Adds a numeric field.
+     *
+     * @param name the name
+     * @param offset the offset within the record
+     * @param type the type (not {@link FieldType#ASCII})
+     * @return the builder
+     */
+    public Builder field(String name, int offset, FieldType type) {
+      if (type == FieldType.ASCII) {
+        throw new IllegalArgumentException("The length of an ASCII field must be specified.");
+      }
+      return field(name, offset, type, type.size);
+    }
+
+    /**
+     * Adds an ASCII field.
+     *
+     * @param name the name
+     * @param offset the offset within the record
+     * @param length the length in bytes
+     * @return the builder
+     */
+    public Builder asciiField(String name, int offset, int length) {
+      return field(name, offset, FieldType.ASCII, length);
+    }
+
+    private Builder field(String name, int offset, FieldType type, int length) {
+      if (name == null || offset < 0 || length <= 0 || offset + length > recordSize) {
+        throw new IllegalArgumentException("Field '" + name + "' does not fit into the record.");
+      }
+      fields.put(name, new Field(offset, type, length));
+      return this;
+    }
+
+    /**
+     * Builds the record layout.
+     *
+     * @return the record layout
+     */
+    public FixedWidthRecordLayout build() {
+      return new FixedWidthRecordLayout(recordSize, byteOrder, fields);
+    }
+  }
+
+}
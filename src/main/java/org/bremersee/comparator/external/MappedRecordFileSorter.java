@@ -0,0 +1,487 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.external;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import lombok.ToString;
+import org.bremersee.comparator.ComparatorException;
+import org.bremersee.comparator.external.FixedWidthRecordLayout.Field;
+import org.bremersee.comparator.external.FixedWidthRecordLayout.FieldType;
+import org.bremersee.comparator.model.SortOrder;
+import org.bremersee.comparator.model.SortOrders;
+
+/**
+ * The mapped record file sorter sorts a file of fixed-width binary records by sort orders, whose
+ * field names are the names of the fields of a {@link FixedWidthRecordLayout}. The file is mapped
+ * into memory with {@link FileChannel#map(MapMode, long, long)}; the records are never read into
+ * Java objects. Only an index with the first eight bytes of the binary sort key and the number of
+ * each record is sorted on the heap (sixteen bytes per record including the buffer of the merge
+ * sort). Records with the same key prefix are compared by their complete keys, that are read from
+ * the mapped file.
+ *
+ * <p>A file, that is sorted in place, is mapped for writing and its records are moved to their
+ * sorted positions inside the file, so no extra disk space is needed. The records are moved in
+ * cycles, so a record is held only in memory while its cycle is moved: if the process dies in the
+ * meantime, the file is not only unsorted, but a record may be lost. If a file must stay intact,
+ * it should be sorted into another target file. Then the records are written in sorted order into
+ * a temporary file next to the target file (so the disk space of the source file is needed a
+ * second time), that replaces the target file at the end.
+ *
+ * <p>The sort is stable. Binary fields have no {@code null} values, so the 'null is first' flag of
+ * a sort order is not used.
+ *
+ * @author Christian Bremer
+ */
+@ToString
+public class MappedRecordFileSorter {
+
+  private static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+
+  private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+
+  private final FixedWidthRecordLayout layout;
+
+  private final Field[] fields;
+
+  private final boolean[] asc;
+
+  private final boolean[] ignoreCase;
+
+  private final int keySize;
+
+  /**
+   * Instantiates a new mapped record file sorter.
+   *
+   * @param layout the record layout
+   * @param sortOrders the sort orders, the field names must be fields of the layout
+   * @throws ComparatorException if a field is not part of the layout
+   */
+  public MappedRecordFileSorter(FixedWidthRecordLayout layout, SortOrders sortOrders) {
+    this.layout = Objects.requireNonNull(layout, "Layout must be present.");
+    List<SortOrder> orders = new ArrayList<>();
+    if (sortOrders != null) {
+      sortOrders.getSortOrders().stream().filter(Objects::nonNull).forEach(orders::add);
+    }
+    this.fields = new Field[orders.size()];
+    this.asc = new boolean[orders.size()];
+    this.ignoreCase = new boolean[orders.size()];
+    int size = 0;
+    for (int i = 0; i < orders.size(); i++) {
+      SortOrder sortOrder = orders.get(i);
+      fields[i] = layout.findField(sortOrder.getField())
+          .orElseThrow(() -> new ComparatorException("Field '" + sortOrder.getField()
+              + "' is not part of the record layout."));
+      asc[i] = sortOrder.isAsc();
+      ignoreCase[i] = sortOrder.isIgnoreCase();
+      size += fields[i].getLength();
+    }
+    this.keySize = size;
+  }
+
+  /**
+   * Sorts the given file in place: the records are moved inside the mapped file.
+   *
+   * @param file the file
+   * @throws IOException if the file cannot be read or written
+   */
+  public void sort(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(
+        file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      Records records = new Records(channel, count(channel), MapMode.READ_WRITE);
+      int[] order = sortIndex(records);
+      byte[] saved = new byte[layout.getRecordSize()];
+      byte[] moved = new byte[layout.getRecordSize()];
+      for (int i = 0; i < order.length; i++) {
+        if (order[i] == i) {
+          continue;
+        }
+        records.read(i, saved);
+        int j = i;
+        while (order[j] != i) {
+          int from = order[j];
+          records.read(from, moved);
+          records.write(j, moved);
+          order[j] = j;
+          j = from;
+        }
+        records.write(j, saved);
+        order[j] = j;
+      }
+      records.force();
+    }
+  }
+
+  /**
+   * Sorts the records of the source file into the target file. If the target file is the source
+   * file, it is sorted in place (see {@link #sort(Path)}). Otherwise the records are written into a
+   * temporary file, that replaces the target file at the end; it gets the permissions, the owner
+   * and the group (or the access control list) of the target file, if it exists, otherwise of the
+   * source file.
+   *
+   * @param source the source file
+   * @param target the target file
+   * @throws IOException if a file cannot be read or written
+   */
+  public void sort(Path source, Path target) throws IOException {
+    if (Files.exists(target) && Files.isSameFile(source, target)) {
+      sort(source);
+      return;
+    }
+    int recordSize = layout.getRecordSize();
+    Path tmp = Files.createTempFile(
+        target.toAbsolutePath().getParent(), target.getFileName().toString(), ".sorting");
+    try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+      copyAttributes(Files.exists(target) ? target : source, tmp);
+      Records records = new Records(in, count(in), MapMode.READ_ONLY);
+      int[] order = sortIndex(records);
+      try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(
+            Math.max(recordSize, WRITE_BUFFER_SIZE / recordSize * recordSize));
+        for (int index : order) {
+          if (buffer.remaining() < recordSize) {
+            write(out, buffer);
+          }
+          records.copy(index, buffer);
+        }
+        write(out, buffer);
+      }
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(tmp);
+      throw e;
+    }
+    try {
+      Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private int count(FileChannel channel) throws IOException {
+    int recordSize = layout.getRecordSize();
+    long fileSize = channel.size();
+    if (fileSize % recordSize != 0) {
+      throw new IOException("The size of the file is not a multiple of the record size.");
+    }
+    long count = fileSize / recordSize;
+    if (count > Integer.MAX_VALUE - 8) {
+      throw new IOException("The file has too many records.");
+    }
+    return (int) count;
+  }
+
+  private static void copyAttributes(Path from, Path to) throws IOException {
+    PosixFileAttributeView posix = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+    if (posix != null) {
+      PosixFileAttributes attributes = posix.readAttributes();
+      PosixFileAttributeView view = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+      view.setPermissions(attributes.permissions());
+      try {
+        view.setGroup(attributes.group());
+        view.setOwner(attributes.owner());
+      } catch (IOException ignored) {
+        // only a privileged user can give away a file
+      }
+      return;
+    }
+    AclFileAttributeView acl = Files.getFileAttributeView(from, AclFileAttributeView.class);
+    if (acl != null) {
+      Files.getFileAttributeView(to, AclFileAttributeView.class).setAcl(acl.getAcl());
+    }
+  }
+
+  private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private int[] sortIndex(Records records) {
+    int count = records.count;
+    long[] prefixes = new long[count];
+    byte[] key = new byte[Math.max(Long.BYTES, keySize)];
+    for (int i = 0; i < count; i++) {
+      encodeKey(records, i, key);
+      prefixes[i] = prefix(key);
+    }
+    int[] order = new int[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    if (keySize == 0) {
+      return order;
+    }
+    byte[] key1 = new byte[keySize];
+    byte[] key2 = new byte[keySize];
+    IndexComparator comparator = (i1, i2) -> {
+      int result = Long.compareUnsigned(prefixes[i1], prefixes[i2]);
+      if (result != 0 || keySize <= Long.BYTES) {
+        return result;
+      }
+      encodeKey(records, i1, key1);
+      encodeKey(records, i2, key2);
+      return Arrays.compareUnsigned(key1, Long.BYTES, keySize, key2, Long.BYTES, keySize);
+    };
+    mergeSort(order, new int[count], 0, count, comparator);
+    return order;
+  }
+
+  private static long prefix(byte[] key) {
+    long prefix = 0L;
+    for (int i = 0; i < Long.BYTES; i++) {
+      prefix = (prefix << 8) | (key[i] & 0xFF);
+    }
+    return prefix;
+  }
+
+  /**
+   * Encodes the key of the record into an order preserving binary form. The key has always the
+   * same size.
+   *
+   * @param records the records
+   * @param index the index of the record
+   * @param key the key
+   */
+  private void encodeKey(Records records, int index, byte[] key) {
+    ByteBuffer buffer = records.buffer(index);
+    int base = records.position(index);
+    int pos = 0;
+    for (int i = 0; i < fields.length; i++) {
+      Field field = fields[i];
+      int offset = base + field.getOffset();
+      int start = pos;
+      switch (field.getType()) {
+        case BYTE:
+          key[pos++] = (byte) (buffer.get(offset) ^ Byte.MIN_VALUE);
+          break;
+        case SHORT:
+          pos = putLong(key, pos, buffer.getShort(offset) ^ Short.MIN_VALUE, Short.BYTES);
+          break;
+        case INT:
+          pos = putLong(key, pos, buffer.getInt(offset) ^ Integer.MIN_VALUE, Integer.BYTES);
+          break;
+        case LONG:
+          pos = putLong(key, pos, buffer.getLong(offset) ^ Long.MIN_VALUE, Long.BYTES);
+          break;
+        case FLOAT:
+          int intBits = Float.floatToIntBits(buffer.getFloat(offset));
+          pos = putLong(key, pos, intBits ^ ((intBits >> 31) | Integer.MIN_VALUE), Integer.BYTES);
+          break;
+        case DOUBLE:
+          long longBits = Double.doubleToLongBits(buffer.getDouble(offset));
+          pos = putLong(key, pos, longBits ^ ((longBits >> 63) | Long.MIN_VALUE), Long.BYTES);
+          break;
+        default:
+          for (int j = 0; j < field.getLength(); j++) {
+            byte b = buffer.get(offset + j);
+            key[pos++] = ignoreCase[i] && b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+          }
+      }
+      if (!asc[i]) {
+        for (int j = start; j < pos; j++) {
+          key[j] = (byte) ~key[j];
+        }
+      }
+    }
+  }
+
+  private static int putLong(byte[] key, int pos, long value, int length) {
+    for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+      key[pos++] = (byte) (value >>> shift);
+    }
+    return pos;
+  }
+
+  /**
+   * A stable merge sort of the index.
+   *
+   * @param order the index
+   * @param aux the auxiliary array
+   * @param lo the first index (inclusive)
+   * @param hi the last index (exclusive)
+   * @param comparator the comparator
+   */
+  private static void mergeSort(
+      int[] order,
+      int[] aux,
+      int lo,
+      int hi,
+      IndexComparator comparator) {
+
+    if (hi - lo < 16) {
+      for (int i = lo + 1; i < hi; i++) {
+        int value = order[i];
+        int j = i;
+        while (j > lo && comparator.compare(order[j - 1], value) > 0) {
+          order[j] = order[j - 1];
+          j--;
+        }
+        order[j] = value;
+      }
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    mergeSort(order, aux, lo, mid, comparator);
+    mergeSort(order, aux, mid, hi, comparator);
+    if (comparator.compare(order[mid - 1], order[mid]) <= 0) {
+      return;
+    }
+    System.arraycopy(order, lo, aux, lo, hi - lo);
+    int i = lo;
+    int j = mid;
+    for (int k = lo; k < hi; k++) {
+      if (i >= mid) {
+        order[k] = aux[j++];
+      } else if (j >= hi || comparator.compare(aux[i], aux[j]) <= 0) {
+        order[k] = aux[i++];
+      } else {
+        order[k] = aux[j++];
+      }
+    }
+  }
+
+  /**
+   * The comparator of record numbers.
+   */
+  private interface IndexComparator {
+
+    /**
+     * Compares the records with the given numbers.
+     *
+     * @param index1 the first record number
+     * @param index2 the second record number
+     * @return the comparison result
+     */
+    int compare(int index1, int index2);
+  }
+
+  /**
+   * The records of the mapped file. The file is mapped in chunks, that contain only whole
+   * records.
+   */
+  private class Records {
+
+    private final MappedByteBuffer[] chunks;
+
+    private final int recordsPerChunk;
+
+    private final int count;
+
+    /**
+     * Instantiates new records.
+     *
+     * @param channel the channel of the file
+     * @param count the number of records
+     * @param mode the map mode
+     * @throws IOException if the file cannot be mapped
+     */
+    Records(FileChannel channel, int count, MapMode mode) throws IOException {
+      int recordSize = layout.getRecordSize();
+      this.count = count;
+      this.recordsPerChunk = MAX_CHUNK_SIZE / recordSize;
+      int chunkCount = count == 0 ? 0 : (count - 1) / recordsPerChunk + 1;
+      this.chunks = new MappedByteBuffer[chunkCount];
+      for (int i = 0; i < chunkCount; i++) {
+        long start = (long) i * recordsPerChunk * recordSize;
+        long size = Math.min((long) recordsPerChunk * recordSize, channel.size() - start);
+        chunks[i] = channel.map(mode, start, size);
+        chunks[i].order(layout.getByteOrder());
+      }
+    }
+
+    /**
+     * Gets the buffer, that contains the record.
+     *
+     * @param index the record number
+     * @return the buffer
+     */
+    ByteBuffer buffer(int index) {
+      return chunks[index / recordsPerChunk];
+    }
+
+    /**
+     * Gets the position of the record in its buffer.
+     *
+     * @param index the record number
+     * @return the position
+     */
+    int position(int index) {
+      return (index % recordsPerChunk) * layout.getRecordSize();
+    }
+
+    /**
+     * Copies the record into the given buffer.
+     *
+     * @param index the record number
+     * @param target the target buffer
+     */
+    void copy(int index, ByteBuffer target) {
+      int position = position(index);
+      target.put(buffer(index).duplicate()
+          .position(position)
+          .limit(position + layout.getRecordSize()));
+    }
+
+    /**
+     * Reads the record into the given array.
+     *
+     * @param index the record number
+     * @param record the array
+     */
+    void read(int index, byte[] record) {
+      buffer(index).get(position(index), record);
+    }
+
+    /**
+     * Writes the given array into the record.
+     *
+     * @param index the record number
+     * @param record the array
+     */
+    void write(int index, byte[] record) {
+      buffer(index).put(position(index), record);
+    }
+
+    /**
+     * Writes the changes of the mapped chunks to the file.
+     */
+    void force() {
+      for (MappedByteBuffer chunk : chunks) {
+        chunk.force();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.external;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The record serializer writes the records of the {@link ExternalSorter} into the temporary files
+ * and reads them back.
+ *
+ * @param <T> the record type
+ * @author Christian Bremer
+ */
+public interface RecordSerializer<T> {
+
+  /**
+   * Writes the given record.
+   *
+   * @param record the record
+   * @param out the output
+   * @throws IOException if writing fails
+   */
+  void write(T record, DataOutput out) throws IOException;
+
+  /**
+   * Reads a record, that was written by {@link #write(Object, DataOutput)}.
+   *
+   * @param in the input
+   * @return the record
+   * @throws IOException if reading fails
+   */
+  T read(DataInput in) throws IOException;
+
+  /**
+   * Estimates the number of bytes, that the given record occupies on the heap. The estimation is
+   * used to keep a run within the {@link ExternalSortProperties#getMemoryBudget() memory budget}.
+   * The default implementation returns {@code 64}.
+   *
+   * @param record the record
+   * @return the estimated size in bytes
+   */
+  default long estimateSize(T record) {
+    return 64L;
+  }
+
+}
@@ -21,15 +21,20 @@ import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlEnum;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlTransient;
 import jakarta.xml.bind.annotation.XmlType;
+import java.text.Collator;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import lombok.EqualsAndHashCode;
@@ -51,6 +56,13 @@ import lombok.Getter;
  * | ignoreCase   | Makes a case ignoring comparison (only for strings).              | true     |
  * |--------------|-------------------------------------------------------------------|----------|
  * | nullIsFirst  | Defines the ordering if one of the values is null.                | false    |
+ * |--------------|-------------------------------------------------------------------|----------|
+ * | locale       | The locale of a collator as language tag (like de-DE). If it is   | null     |
+ * |              | present, strings are compared by the collator of this locale.     |          |
+ * |--------------|-------------------------------------------------------------------|----------|
+ * | strength     | The strength of the collator (primary, secondary, tertiary or     | null     |
+ * |              | identical). If it is null, the strength is secondary, if the case |          |
+ * |              | is ignored, otherwise tertiary.                                   |          |
  *  ---------------------------------------------------------------------------------------------
  * </pre>
  *
@@ -60,6 +72,11 @@ import lombok.Getter;
  * fieldNameOrPath,asc,ignoreCase,nullIsFirst
  * </pre>
  *
+ * <p>The locale and the strength of a collator are appended, if they are present:
+ * <pre>
+ * fieldNameOrPath,asc,ignoreCase,nullIsFirst,locale,strength
+ * </pre>
+ *
  * <p>For example:
  * <pre>
  * properties.customSettings.priority,asc,true,false
@@ -83,20 +100,26 @@ import lombok.Getter;
     "field",
     "asc",
     "ignoreCase",
-    "nullIsFirst"
+    "nullIsFirst",
+    "locale",
+    "strength"
 })
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonPropertyOrder(value = {
     "field",
     "asc",
     "ignoreCase",
-    "nullIsFirst"
+    "nullIsFirst",
+    "locale",
+    "strength"
 })
 @Schema(description = "A sort order defines how a field of an object is sorted.")
 @Getter
-@EqualsAndHashCode
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 public class SortOrder {
 
+  private static final WeakInterner<SortOrder> POOL = new WeakInterner<>();
+
   @Schema(description = "The field name or path.")
   @XmlElement(name = "field")
   private final String field;
@@ -113,6 +136,16 @@ public class SortOrder {
   @XmlElement(name = "nullIsFirst", defaultValue = "false")
   private final boolean nullIsFirst;
 
+  @Schema(description = "The locale of the collator as language tag.")
+  @XmlElement(name = "locale")
+  @JsonInclude(Include.NON_NULL)
+  private final String locale;
+
+  @Schema(description = "The strength of the collator.")
+  @XmlElement(name = "strength")
+  @JsonInclude(Include.NON_NULL)
+  private final CollationStrength strength;
+
   /**
    * Instantiates a new sort order.
    */
@@ -129,16 +162,40 @@ public class SortOrder {
    *     case-sensitive order
    * @param nullIsFirst specifies the order of {@code null} values
    */
+  public SortOrder(
+      String field,
+      boolean asc,
+      boolean ignoreCase,
+      boolean nullIsFirst) {
+    this(field, asc, ignoreCase, nullIsFirst, null, null);
+  }
+
+  /**
+   * Instantiates a new sort order, that compares strings with a collator.
+   *
+   * @param field the field name or path (can be {@code null})
+   * @param asc {@code true} for an ascending order, {@code false} for a descending order
+   * @param ignoreCase {@code true} for a case-insensitive order,  {@code false} for a
+   *     case-sensitive order
+   * @param nullIsFirst specifies the order of {@code null} values
+   * @param locale the locale of the collator as language tag (can be {@code null} - then no
+   *     collator is used)
+   * @param strength the strength of the collator (can be {@code null})
+   */
   @JsonCreator
   public SortOrder(
       @JsonProperty("field") String field,
       @JsonProperty(value = "asc", required = true) boolean asc,
       @JsonProperty(value = "ignoreCase", required = true) boolean ignoreCase,
-      @JsonProperty(value = "nullIsFirst", required = true) boolean nullIsFirst) {
+      @JsonProperty(value = "nullIsFirst", required = true) boolean nullIsFirst,
+      @JsonProperty("locale") String locale,
+      @JsonProperty("strength") CollationStrength strength) {
     this.field = field;
     this.asc = asc;
     this.ignoreCase = ignoreCase;
     this.nullIsFirst = nullIsFirst;
+    this.locale = locale == null || locale.trim().isEmpty() ? null : locale.trim();
+    this.strength = strength;
   }
 
   /**
@@ -149,7 +206,8 @@ public class SortOrder {
    */
   public SortOrder with(Direction direction) {
     return Optional.ofNullable(direction)
-        .map(dir -> new SortOrder(getField(), dir.isAsc(), isIgnoreCase(), isNullIsFirst()))
+        .map(dir -> of(
+            getField(), dir.isAsc(), isIgnoreCase(), isNullIsFirst(), getLocale(), getStrength()))
         .orElse(this);
   }
 
@@ -161,7 +219,8 @@ public class SortOrder {
    */
   public SortOrder with(CaseHandling caseHandling) {
     return Optional.ofNullable(caseHandling)
-        .map(ch -> new SortOrder(getField(), isAsc(), ch.isIgnoreCase(), isNullIsFirst()))
+        .map(ch -> of(
+            getField(), isAsc(), ch.isIgnoreCase(), isNullIsFirst(), getLocale(), getStrength()))
         .orElse(this);
   }
 
@@ -173,10 +232,52 @@ public class SortOrder {
    */
   public SortOrder with(NullHandling nullHandling) {
     return Optional.ofNullable(nullHandling)
-        .map(nh -> new SortOrder(getField(), isAsc(), isIgnoreCase(), nh.isNullIsFirst()))
+        .map(nh -> of(
+            getField(), isAsc(), isIgnoreCase(), nh.isNullIsFirst(), getLocale(), getStrength()))
         .orElse(this);
   }
 
+  /**
+   * With given locale of a collator.
+   *
+   * @param locale the locale (can be {@code null} - then no collator is used)
+   * @return the new sort order
+   */
+  public SortOrder with(Locale locale) {
+    return of(getField(), isAsc(), isIgnoreCase(), isNullIsFirst(),
+        locale != null ? locale.toLanguageTag() : null, getStrength());
+  }
+
+  /**
+   * With given collation strength.
+   *
+   * @param strength the collation strength (can be {@code null})
+   * @return the new sort order
+   */
+  public SortOrder with(CollationStrength strength) {
+    return of(getField(), isAsc(), isIgnoreCase(), isNullIsFirst(), getLocale(), strength);
+  }
+
+  /**
+   * Creates a new collator of the locale and the strength of this sort order. If no strength is
+   * specified, the strength is {@link Collator#SECONDARY}, if the case is ignored, otherwise
+   * {@link Collator#TERTIARY}.
+   *
+   * @return the collator or {@code null}, if no locale is specified
+   */
+  public Collator createCollator() {
+    if (locale == null) {
+      return null;
+    }
+    Collator collator = Collator.getInstance(Locale.forLanguageTag(locale));
+    if (strength != null) {
+      collator.setStrength(strength.getValue());
+    } else {
+      collator.setStrength(ignoreCase ? Collator.SECONDARY : Collator.TERTIARY);
+    }
+    return collator;
+  }
+
   /**
    * Creates the sort order text of this ordering description.
    *
@@ -241,10 +342,17 @@ public class SortOrder {
   public String getSortOrderText(SortOrdersTextProperties properties) {
     SortOrdersTextProperties props = Objects.requireNonNullElse(properties,
         SortOrdersTextProperties.defaults());
-    return (field != null ? field : "") + props.getSortOrderArgsSeparator()
+    String text = (field != null ? field : "") + props.getSortOrderArgsSeparator()
         + props.getDirectionValue(asc) + props.getSortOrderArgsSeparator()
         + props.getIgnoreCaseValue(ignoreCase) + props.getSortOrderArgsSeparator()
         + props.getNullIsFirstValue(nullIsFirst);
+    if (locale != null || strength != null) {
+      text = text + props.getSortOrderArgsSeparator() + (locale != null ? locale : "");
+    }
+    if (strength != null) {
+      text = text + props.getSortOrderArgsSeparator() + props.getStrengthValue(strength);
+    }
+    return text;
   }
 
   /**
@@ -284,7 +392,61 @@ public class SortOrder {
    * @return the sort order
    */
   public static SortOrder by(String field) {
-    return new SortOrder(field, true, true, false);
+    return of(field, true, true, false);
+  }
+
+  /**
+   * Gets the canonical sort order with the given attributes (see {@link #intern()}).
+   *
+   * @param field the field name or path (can be {@code null})
+   * @param asc {@code true} for an ascending order, {@code false} for a descending order
+   * @param ignoreCase {@code true} for a case-insensitive order,  {@code false} for a
+   *     case-sensitive order
+   * @param nullIsFirst specifies the order of {@code null} values
+   * @return the canonical sort order
+   */
+  public static SortOrder of(
+      String field,
+      boolean asc,
+      boolean ignoreCase,
+      boolean nullIsFirst) {
+    return of(field, asc, ignoreCase, nullIsFirst, null, null);
+  }
+
+  /**
+   * Gets the canonical sort order with the given attributes (see {@link #intern()}).
+   *
+   * @param field the field name or path (can be {@code null})
+   * @param asc {@code true} for an ascending order, {@code false} for a descending order
+   * @param ignoreCase {@code true} for a case-insensitive order,  {@code false} for a
+   *     case-sensitive order
+   * @param nullIsFirst specifies the order of {@code null} values
+   * @param locale the locale of the collator as language tag (can be {@code null} - then no
+   *     collator is used)
+   * @param strength the strength of the collator (can be {@code null})
+   * @return the canonical sort order
+   */
+  public static SortOrder of(
+      String field,
+      boolean asc,
+      boolean ignoreCase,
+      boolean nullIsFirst,
+      String locale,
+      CollationStrength strength) {
+    return new SortOrder(field, asc, ignoreCase, nullIsFirst, locale, strength).intern();
+  }
+
+  /**
+   * Gets the canonical sort order, that is equal to this sort order. Like {@link String#intern()}
+   * the first interned sort order of equal sort orders is returned, as long as it is referenced
+   * somewhere. The pool holds its sort orders weakly, so unused sort orders are garbage collected,
+   * and it does not lock, so concurrent threads do not block each other.
+   * Equal canonical sort orders are identical, so they are compared by reference.
+   *
+   * @return the canonical sort order
+   */
+  public SortOrder intern() {
+    return POOL.intern(this);
   }
 
   /**
@@ -294,52 +456,19 @@ public class SortOrder {
    * @return the sort order
    */
   public static SortOrder fromSortOrderText(String source) {
-    return fromSortOrderText(source, SortOrdersTextProperties.defaults());
+    return SortOrdersTextParser.defaults().parseSortOrder(source);
   }
 
   /**
-   * From sort order text.
+   * From sort order text (see {@link SortOrdersTextParser}).
    *
    * @param source the sort order text
    * @param properties the properties
    * @return the sort order
    */
   public static SortOrder fromSortOrderText(String source, SortOrdersTextProperties properties) {
-    return Optional.ofNullable(source)
-        .map(text -> {
-          SortOrdersTextProperties props = Objects
-              .requireNonNullElse(properties, SortOrdersTextProperties.defaults());
-          String field;
-          boolean asc = props.isAsc(null);
-          boolean ignoreCase = props.isCaseIgnored(null);
-          boolean nullIsFirst = props.isNullFirst(null);
-          String separator = props.getSortOrderArgsSeparator();
-          int index = text.indexOf(separator);
-          if (index < 0) {
-            field = text.trim();
-          } else {
-            field = text.substring(0, index).trim();
-            int from = index + separator.length();
-            index = text.indexOf(separator, from);
-            if (index < 0) {
-              asc = props.isAsc(text.substring(from).trim());
-            } else {
-              asc = props.isAsc(text.substring(from, index).trim());
-              from = index + separator.length();
-              index = text.indexOf(separator, from);
-              if (index < 0) {
-                ignoreCase = props.isCaseIgnored(text.substring(from).trim());
-              } else {
-                ignoreCase = props.isCaseIgnored(text.substring(from, index).trim());
-                from = index + separator.length();
-                nullIsFirst = props.isNullFirst(text.substring(from).trim());
-              }
-            }
-          }
-          field = field.isEmpty() ? null : field;
-          return new SortOrder(field, asc, ignoreCase, nullIsFirst);
-        })
-        .orElseGet(() -> new SortOrder(null, true, true, false));
+    return (properties != null ? new SortOrdersTextParser(properties)
+        : SortOrdersTextParser.defaults()).parseSortOrder(source);
   }
 
   /**
@@ -411,4 +540,44 @@ public class SortOrder {
     }
   }
 
+  /**
+   * The strength of a collator.
+   */
+  @XmlType(name = "collationStrengthType")
+  @XmlEnum
+  @Schema(description = "The strength of a collator.")
+  public enum CollationStrength {
+    /**
+     * Primary strength: only base letters are different (like 'a' and 'b').
+     */
+    PRIMARY(Collator.PRIMARY),
+    /**
+     * Secondary strength: accents are different, too (like 'a' and '&auml;').
+     */
+    SECONDARY(Collator.SECONDARY),
+    /**
+     * Tertiary strength: the case is different, too (like 'a' and 'A').
+     */
+    TERTIARY(Collator.TERTIARY),
+    /**
+     * Identical strength: all differences are significant.
+     */
+    IDENTICAL(Collator.IDENTICAL);
+
+    private final int value;
+
+    CollationStrength(int value) {
+      this.value = value;
+    }
+
+    /**
+     * Gets the value of the strength as defined by {@link Collator}.
+     *
+     * @return the value
+     */
+    public int getValue() {
+      return value;
+    }
+  }
+
 }
@@ -34,7 +34,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.StringTokenizer;
 import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
 
@@ -48,13 +47,15 @@ import lombok.EqualsAndHashCode;
 @XmlType(name = "sortOrdersType")
 @JsonIgnoreProperties(ignoreUnknown = true)
 @Schema(description = "A list of sort orders.")
-@EqualsAndHashCode
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 public class SortOrders {
 
   @Schema(description = "The list of sort orders.")
   @XmlElementRef
   private final List<SortOrder> sortOrders = new ArrayList<>();
 
+  private transient String sortOrdersText;
+
   /**
    * Instantiates an empty list of sort orders.
    */
@@ -132,12 +133,20 @@ public class SortOrders {
    * room.number,asc,true,false;person.lastName,asc,true,false;person.firstName,asc,true,false
    * </pre>
    *
+   * <p>The sort orders cannot be changed, so the text is created once and then cached (like the
+   * hash code).
+   *
    * @return the sort orders text
    */
   @JsonIgnore
   @XmlTransient
   public String getSortOrdersText() {
-    return getSortOrdersText(null);
+    String text = sortOrdersText;
+    if (text == null) {
+      text = getSortOrdersText(null);
+      sortOrdersText = text;
+    }
+    return text;
   }
 
   /**
@@ -225,29 +234,19 @@ public class SortOrders {
    * @return the sort orders
    */
   public static SortOrders fromSortOrdersText(String source) {
-    return fromSortOrdersText(source, SortOrdersTextProperties.defaults());
+    return SortOrdersTextParser.defaults().parseSortOrders(source);
   }
 
   /**
-   * From sort orders text.
+   * From sort orders text (see {@link SortOrdersTextParser}).
    *
    * @param source the sort orders text
    * @param properties the properties
    * @return the sort orders
    */
   public static SortOrders fromSortOrdersText(String source, SortOrdersTextProperties properties) {
-    return Optional.ofNullable(source)
-        .map(text -> {
-          SortOrdersTextProperties props = Objects
-              .requireNonNullElse(properties, SortOrdersTextProperties.defaults());
-          List<SortOrder> sortOrders = new ArrayList<>();
-          StringTokenizer tokenizer = new StringTokenizer(text, props.getSortOrderSeparator());
-          while (tokenizer.hasMoreTokens()) {
-            sortOrders.add(SortOrder.fromSortOrderText(tokenizer.nextToken(), props));
-          }
-          return new SortOrders(sortOrders);
-        })
-        .orElseGet(SortOrders::new);
+    return (properties != null ? new SortOrdersTextParser(properties)
+        : SortOrdersTextParser.defaults()).parseSortOrders(source);
   }
 
   /**
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.bremersee.comparator.model.SortOrder.CollationStrength;
+
+/**
+ * The parser of sort order texts (see {@link SortOrder#fromSortOrderText(String,
+ * SortOrdersTextProperties)} and {@link SortOrders#fromSortOrdersText(String,
+ * SortOrdersTextProperties)}). The values of the properties are prepared once, when the parser is
+ * created. Then the text is read in a single pass over index ranges: only the field names and the
+ * locales are copied into new strings, all other arguments are matched in place.
+ *
+ * <p>The result is the same as the result of the text methods of {@link SortOrdersTextProperties}:
+ * the arguments are trimmed and compared case-insensitively, and every character of the sort order
+ * separator separates sort orders (empty sort orders are skipped).
+ *
+ * <p>The parsed sort orders are canonical (see {@link SortOrder#intern()}). The parser is immutable
+ * and thread-safe.
+ *
+ * @author Christian Bremer
+ */
+public final class SortOrdersTextParser {
+
+  private static final CollationStrength[] STRENGTHS = CollationStrength.values();
+
+  private static final SortOrdersTextParser DEFAULT_PARSER = new SortOrdersTextParser(
+      SortOrdersTextProperties.defaults());
+
+  private final String sortOrderSeparators;
+
+  private final String argsSeparator;
+
+  private final Matcher asc;
+
+  private final Matcher caseInsensitive;
+
+  private final Matcher nullIsFirst;
+
+  private final Matcher[] strengths;
+
+  /**
+   * Instantiates a new sort orders text parser.
+   *
+   * @param properties the properties (can be {@code null} - then the defaults are used)
+   */
+  public SortOrdersTextParser(SortOrdersTextProperties properties) {
+    SortOrdersTextProperties props = Objects.requireNonNullElse(properties,
+        SortOrdersTextProperties.defaults());
+    this.sortOrderSeparators = props.getSortOrderSeparator();
+    this.argsSeparator = props.getSortOrderArgsSeparator();
+    this.asc = new Matcher(props.getAscValue());
+    this.caseInsensitive = new Matcher(props.getCaseInsensitiveValue());
+    this.nullIsFirst = new Matcher(props.getNullIsFirstValue());
+    this.strengths = new Matcher[STRENGTHS.length];
+    for (int i = 0; i < STRENGTHS.length; i++) {
+      this.strengths[i] = new Matcher(STRENGTHS[i].name());
+    }
+  }
+
+  /**
+   * Gets the parser with the default properties.
+   *
+   * @return the parser with the default properties
+   */
+  public static SortOrdersTextParser defaults() {
+    return DEFAULT_PARSER;
+  }
+
+  /**
+   * Parses the given sort orders text.
+   *
+   * @param text the sort orders text (can be {@code null})
+   * @return the sort orders
+   */
+  public SortOrders parseSortOrders(CharSequence text) {
+    if (text == null) {
+      return new SortOrders();
+    }
+    List<SortOrder> sortOrders = new ArrayList<>();
+    int length = text.length();
+    int start = 0;
+    while (start < length) {
+      while (start < length && isSortOrderSeparator(text.charAt(start))) {
+        start++;
+      }
+      int end = start;
+      while (end < length && !isSortOrderSeparator(text.charAt(end))) {
+        end++;
+      }
+      if (end > start) {
+        sortOrders.add(parseSortOrder(text, start, end));
+      }
+      start = end;
+    }
+    return new SortOrders(sortOrders);
+  }
+
+  /**
+   * Parses the given sort order text.
+   *
+   * @param text the sort order text (can be {@code null})
+   * @return the sort order
+   */
+  public SortOrder parseSortOrder(CharSequence text) {
+    if (text == null) {
+      return SortOrder.of(null, true, true, false);
+    }
+    return parseSortOrder(text, 0, text.length());
+  }
+
+  /**
+   * Parses the sort order text between the given indexes.
+   *
+   * @param text the text
+   * @param start the index of the first character of the sort order text
+   * @param end the index after the last character of the sort order text
+   * @return the sort order
+   */
+  public SortOrder parseSortOrder(CharSequence text, int start, int end) {
+    String field = null;
+    boolean isAsc = true;
+    boolean isIgnoreCase = true;
+    boolean isNullIsFirst = false;
+    String locale = null;
+    CollationStrength strength = null;
+    int from = start;
+    for (int arg = 0; arg < 6; arg++) {
+      int index = arg < 5 ? indexOfArgsSeparator(text, from, end) : -1;
+      int to = index < 0 ? end : index;
+      int trimmedFrom = trimStart(text, from, to);
+      int trimmedTo = trimEnd(text, trimmedFrom, to);
+      switch (arg) {
+        case 0:
+          field = copy(text, trimmedFrom, trimmedTo);
+          break;
+        case 1:
+          isAsc = trimmedFrom == trimmedTo || asc.matches(text, trimmedFrom, trimmedTo);
+          break;
+        case 2:
+          isIgnoreCase = trimmedFrom == trimmedTo
+              || caseInsensitive.matches(text, trimmedFrom, trimmedTo);
+          break;
+        case 3:
+          isNullIsFirst = nullIsFirst.matches(text, trimmedFrom, trimmedTo);
+          break;
+        case 4:
+          locale = copy(text, trimmedFrom, trimmedTo);
+          break;
+        default:
+          strength = findStrength(text, trimmedFrom, trimmedTo);
+      }
+      if (index < 0) {
+        break;
+      }
+      from = index + argsSeparator.length();
+    }
+    return SortOrder.of(field, isAsc, isIgnoreCase, isNullIsFirst, locale, strength);
+  }
+
+  private boolean isSortOrderSeparator(char c) {
+    return sortOrderSeparators.indexOf(c) >= 0;
+  }
+
+  private int indexOfArgsSeparator(CharSequence text, int from, int end) {
+    int length = argsSeparator.length();
+    for (int i = from; i <= end - length; i++) {
+      int j = 0;
+      while (j < length && text.charAt(i + j) == argsSeparator.charAt(j)) {
+        j++;
+      }
+      if (j == length) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private CollationStrength findStrength(CharSequence text, int start, int end) {
+    for (int i = 0; i < strengths.length && start < end; i++) {
+      if (strengths[i].matches(text, start, end)) {
+        return STRENGTHS[i];
+      }
+    }
+    return null;
+  }
+
+  private static int trimStart(CharSequence text, int start, int end) {
+    while (start < end && text.charAt(start) <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  private static int trimEnd(CharSequence text, int start, int end) {
+    while (end > start && text.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return end;
+  }
+
+  private static String copy(CharSequence text, int start, int end) {
+    return start < end ? text.subSequence(start, end).toString() : null;
+  }
+
+  /**
+   * Matches a value of the properties case-insensitively like {@link
+   * String#equalsIgnoreCase(String)}, but without creating a string of the compared characters.
+   */
+  private static final class Matcher {
+
+    private final String value;
+
+    private final char[] upperCase;
+
+    private final char[] lowerCase;
+
+    /**
+     * Instantiates a new matcher.
+     *
+     * @param value the value
+     */
+    Matcher(String value) {
+      this.value = value;
+      this.upperCase = new char[value.length()];
+      this.lowerCase = new char[value.length()];
+      for (int i = 0; i < value.length(); i++) {
+        upperCase[i] = Character.toUpperCase(value.charAt(i));
+        lowerCase[i] = Character.toLowerCase(upperCase[i]);
+      }
+    }
+
+    /**
+     * Determines whether the characters between the given indexes are equal to the value,
+     * ignoring case.
+     *
+     * @param text the text
+     * @param start the start index (inclusive)
+     * @param end the end index (exclusive)
+     * @return {@code true}, if the characters match the value, otherwise {@code false}
+     */
+    boolean matches(CharSequence text, int start, int end) {
+      if (end - start != value.length()) {
+        return false;
+      }
+      for (int i = 0; i < upperCase.length; i++) {
+        char c = text.charAt(start + i);
+        if (c != value.charAt(i)) {
+          char upper = Character.toUpperCase(c);
+          if (upper != upperCase[i] && Character.toLowerCase(upper) != lowerCase[i]) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+}
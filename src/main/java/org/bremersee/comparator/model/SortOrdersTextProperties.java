@@ -16,6 +16,7 @@
 
 package org.bremersee.comparator.model;
 
+import java.util.Locale;
 import org.immutables.value.Value;
 
 /**
@@ -191,4 +192,34 @@ public interface SortOrdersTextProperties {
     return getNullIsFirstValue().equalsIgnoreCase(value);
   }
 
+  /**
+   * Gets the value of the given collation strength.
+   *
+   * @param strength the collation strength (can be {@code null})
+   * @return the value (the lower case name of the strength or an empty string)
+   */
+  @Value.Derived
+  default String getStrengthValue(SortOrder.CollationStrength strength) {
+    return strength != null ? strength.name().toLowerCase(Locale.ROOT) : "";
+  }
+
+  /**
+   * Gets the collation strength of the given value.
+   *
+   * @param value the value
+   * @return the collation strength; {@code null}, if the value is empty or unknown
+   */
+  @Value.Derived
+  default SortOrder.CollationStrength getStrength(String value) {
+    if (value == null || value.trim().isEmpty()) {
+      return null;
+    }
+    for (SortOrder.CollationStrength strength : SortOrder.CollationStrength.values()) {
+      if (strength.name().equalsIgnoreCase(value.trim())) {
+        return strength;
+      }
+    }
+    return null;
+  }
+
 }
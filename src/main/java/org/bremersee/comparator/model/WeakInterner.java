@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pool of canonical instances (like {@link String#intern()}), that holds its instances weakly.
+ * It is backed by a {@link ConcurrentHashMap}, so concurrent threads do not block each other.
+ * Instances, that are garbage collected, are removed on the next call of {@link #intern(Object)}.
+ *
+ * @param <T> the type of the instances (must be immutable with value based equality)
+ * @author Christian Bremer
+ */
+final class WeakInterner<T> {
+
+  private final ConcurrentHashMap<WeakKey<T>, WeakKey<T>> pool = new ConcurrentHashMap<>();
+
+  private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+  /**
+   * Gets the canonical instance, that is equal to the given instance. If there is none, the given
+   * instance becomes the canonical instance.
+   *
+   * @param instance the instance (cannot be {@code null})
+   * @return the canonical instance
+   */
+  T intern(T instance) {
+    removeCollected();
+    WeakKey<T> key = new WeakKey<>(instance, queue);
+    while (true) {
+      WeakKey<T> existing = pool.putIfAbsent(key, key);
+      if (existing == null) {
+        return instance;
+      }
+      T canonical = existing.get();
+      if (canonical != null) {
+        key.clear();
+        return canonical;
+      }
+      pool.remove(existing, existing);
+    }
+  }
+
+  /**
+   * Gets the number of pooled instances (including instances, that are garbage collected, but not
+   * removed yet).
+   *
+   * @return the number of pooled instances
+   */
+  int size() {
+    return pool.size();
+  }
+
+  private void removeCollected() {
+    Object reference;
+    while ((reference = queue.poll()) != null) {
+      //noinspection SuspiciousMethodCalls
+      pool.remove(reference, reference);
+    }
+  }
+
+  /**
+   * The weak key of an instance. Two keys are equal, if their instances are equal; a key, whose
+   * instance is garbage collected, is only equal to itself.
+   *
+   * @param <T> the type of the instance
+   */
+  private static final class WeakKey<T> extends WeakReference<T> {
+
+    private final int hash;
+
+    /**
+     * Instantiates a new weak key.
+     *
+     * @param referent the instance
+     * @param queue the queue, that receives the key, when the instance is garbage collected
+     */
+    WeakKey(T referent, ReferenceQueue<? super T> queue) {
+      super(referent, queue);
+      this.hash = referent.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof WeakKey) || hash != ((WeakKey<?>) obj).hash) {
+        return false;
+      }
+      T referent = get();
+      return referent != null && referent.equals(((WeakKey<?>) obj).get());
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import org.bremersee.comparator.FieldPath;
+import org.bremersee.comparator.annotation.Sortable;
+import org.bremersee.comparator.annotation.SortableAccessorsRegistry;
+
+/**
+ * The annotation processor, that generates the {@link
+ * org.bremersee.comparator.annotation.SortableAccessors} of the types, that are annotated with
+ * {@link Sortable}. The generated class is placed into the package of the annotated type.
+ *
+ * @author Christian Bremer
+ */
+@SupportedAnnotationTypes("org.bremersee.comparator.annotation.Sortable")
+public class SortableProcessor extends AbstractProcessor {
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(Sortable.class)) {
+      if (!(element instanceof TypeElement) || element.getModifiers().contains(Modifier.PRIVATE)) {
+        error(element, "@Sortable is only supported on types, that are not private.");
+        continue;
+      }
+      TypeElement type = (TypeElement) element;
+      String[] paths = type.getAnnotation(Sortable.class).value();
+      List<Accessor> accessors = paths.length == 0
+          ? findAllAccessors(type)
+          : findAccessors(type, paths);
+      if (accessors != null) {
+        generate(type, accessors);
+      }
+    }
+    return true;
+  }
+
+  private List<Accessor> findAllAccessors(TypeElement type) {
+    Set<String> names = new LinkedHashSet<>();
+    for (Element member : processingEnv.getElementUtils().getAllMembers(type)) {
+      String name = member.getSimpleName().toString();
+      if (member.getKind() == ElementKind.FIELD) {
+        names.add(name);
+      } else if (member.getKind() == ElementKind.METHOD && !"getClass".equals(name)) {
+        if (name.startsWith("get") && name.length() > 3) {
+          names.add(decapitalize(name.substring(3)));
+        } else if (name.startsWith("is") && name.length() > 2) {
+          names.add(decapitalize(name.substring(2)));
+        }
+      }
+    }
+    PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+    List<Accessor> accessors = new ArrayList<>();
+    for (String name : names) {
+      if (isReadByReflection(type, name, pkg)) {
+        continue;
+      }
+      findAccessor(type, name, pkg)
+          .filter(accessor -> accessor.segments.size() == 1)
+          .ifPresent(accessors::add);
+    }
+    return accessors;
+  }
+
+  private List<Accessor> findAccessors(TypeElement type, String[] paths) {
+    PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+    List<Accessor> accessors = new ArrayList<>();
+    Set<String> normalizedPaths = new LinkedHashSet<>();
+    boolean valid = true;
+    paths:
+    for (String path : paths) {
+      FieldPath fieldPath = FieldPath.of(path);
+      if (!normalizedPaths.add(fieldPath.toString())) {
+        continue;
+      }
+      Accessor accessor = new Accessor(fieldPath.toString());
+      TypeMirror currentType = type.asType();
+      for (String segment : fieldPath.getSegments()) {
+        TypeElement currentElement = currentType.getKind() == TypeKind.DECLARED
+            ? (TypeElement) ((DeclaredType) currentType).asElement()
+            : null;
+        if (currentElement != null && isReadByReflection(currentElement, segment, pkg)) {
+          note(type, "Field path '" + path + "' is not generated: the field or method '"
+              + segment + "' is not accessible, so it is read by reflection.");
+          continue paths;
+        }
+        Optional<Accessor> segmentAccessor = currentElement != null
+            ? findAccessor(currentElement, segment, pkg)
+            : Optional.empty();
+        if (segmentAccessor.isEmpty()) {
+          error(type, "Field path '" + path + "' cannot be resolved: there is no accessible "
+              + "field or getter '" + segment + "'.");
+          valid = false;
+          break;
+        }
+        accessor.valueType = segmentAccessor.get().valueType;
+        currentType = processingEnv.getTypeUtils().erasure(accessor.valueType);
+        accessor.segments.add(segmentAccessor.get().segments.get(0));
+        accessor.segmentTypes.add(currentType.toString());
+      }
+      if (valid && !fieldPath.isEmpty()) {
+        accessors.add(accessor);
+      }
+    }
+    return valid ? accessors : null;
+  }
+
+  private Optional<Accessor> findAccessor(TypeElement type, String name, PackageElement pkg) {
+    List<? extends Element> members = processingEnv.getElementUtils().getAllMembers(type);
+    for (Element member : members) {
+      if (member.getKind() == ElementKind.FIELD
+          && name.contentEquals(member.getSimpleName())
+          && isAccessible(member, pkg)) {
+        return Optional.of(new Accessor(name, name, ((VariableElement) member).asType()));
+      }
+    }
+    for (String methodName : getPossibleMethodNames(name)) {
+      ExecutableElement method = findMethod(type, methodName);
+      if (method != null) {
+        return isReadable(method, pkg)
+            ? Optional.of(new Accessor(name, methodName + "()", method.getReturnType()))
+            : Optional.empty();
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Determines whether the {@link org.bremersee.comparator.DefaultValueExtractor} reads the value
+   * of the given name by a field or method, that cannot be read by the generated code. The value
+   * extractor reads the first declared field with the given name (even a private one), otherwise
+   * the first declared method without parameters, whose name is one of the {@link
+   * #getPossibleMethodNames(String) possible method names} (in this order). No accessor must be
+   * generated for such a name, that would read another field or method.
+   *
+   * @param type the type
+   * @param name the field name
+   * @param pkg the package of the generated class
+   * @return {@code true}, if the field or method of the value extractor is not accessible
+   */
+  private boolean isReadByReflection(TypeElement type, String name, PackageElement pkg) {
+    TypeElement searchType = type;
+    while (searchType != null
+        && !Object.class.getName().contentEquals(searchType.getQualifiedName())) {
+      for (Element member : searchType.getEnclosedElements()) {
+        if (member.getKind() == ElementKind.FIELD && name.contentEquals(member.getSimpleName())) {
+          return !isAccessible(member, pkg);
+        }
+      }
+      searchType = getSuperclass(searchType);
+    }
+    for (String methodName : getPossibleMethodNames(name)) {
+      ExecutableElement method = findMethod(type, methodName);
+      if (method != null) {
+        return !isReadable(method, pkg);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Find the method without parameters, that is found by the {@link
+   * org.bremersee.comparator.DefaultValueExtractor}: the first declared method with the given name
+   * of the type and its super classes or the first public method of an interface.
+   *
+   * @param type the type
+   * @param name the method name
+   * @return the method or {@code null}
+   */
+  private ExecutableElement findMethod(TypeElement type, String name) {
+    TypeElement searchType = type;
+    while (searchType != null) {
+      List<? extends Element> members = searchType.getKind().isInterface()
+          ? processingEnv.getElementUtils().getAllMembers(searchType)
+          : searchType.getEnclosedElements();
+      for (Element member : members) {
+        if (member.getKind() == ElementKind.METHOD
+            && name.contentEquals(member.getSimpleName())
+            && ((ExecutableElement) member).getParameters().isEmpty()) {
+          return (ExecutableElement) member;
+        }
+      }
+      searchType = getSuperclass(searchType);
+    }
+    return null;
+  }
+
+  private static TypeElement getSuperclass(TypeElement type) {
+    TypeMirror superclass = type.getSuperclass();
+    return superclass.getKind() == TypeKind.DECLARED
+        ? (TypeElement) ((DeclaredType) superclass).asElement()
+        : null;
+  }
+
+  private boolean isReadable(ExecutableElement method, PackageElement pkg) {
+    return isAccessible(method, pkg) && method.getReturnType().getKind() != TypeKind.VOID;
+  }
+
+  private boolean isAccessible(Element member, PackageElement pkg) {
+    Set<Modifier> modifiers = member.getModifiers();
+    if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE)) {
+      return false;
+    }
+    return modifiers.contains(Modifier.PUBLIC)
+        || pkg.equals(processingEnv.getElementUtils().getPackageOf(member));
+  }
+
+  private static String[] getPossibleMethodNames(String name) {
+    String baseName = name.substring(0, 1).toUpperCase() + name.substring(1);
+    return new String[]{name, "get" + baseName, "is" + baseName};
+  }
+
+  private static String decapitalize(String name) {
+    return name.substring(0, 1).toLowerCase() + name.substring(1);
+  }
+
+  private void generate(TypeElement type, List<Accessor> accessors) {
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    String className = SortableAccessorsRegistry.getAccessorsClassName(binaryName);
+    int index = className.lastIndexOf('.');
+    String packageName = index < 0 ? null : className.substring(0, index);
+    String simpleName = className.substring(index + 1);
+    String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+    try (PrintWriter out = new PrintWriter(processingEnv.getFiler()
+        .createSourceFile(className, type)
+        .openWriter())) {
+
+      if (packageName != null) {
+        out.println("package " + packageName + ";");
+        out.println();
+      }
+      out.println("@javax.annotation.processing.Generated(\""
+          + SortableProcessor.class.getName() + "\")");
+      out.println("@SuppressWarnings({\"rawtypes\", \"unchecked\"})");
+      out.println("public final class " + simpleName
+          + " implements org.bremersee.comparator.annotation.SortableAccessors<"
+          + typeName + "> {");
+      out.println();
+      out.println("  private static final java.util.Map<String, java.util.function.Function<"
+          + typeName + ", Object>> ACCESSORS = java.util.Map.ofEntries(");
+      for (int i = 0; i < accessors.size(); i++) {
+        out.println("      java.util.Map.entry(\"" + accessors.get(i).path + "\", "
+            + lambda(typeName, accessors.get(i)) + ")" + (i < accessors.size() - 1 ? "," : ""));
+      }
+      out.println("  );");
+      out.println();
+      out.println("  private static final java.util.Map<String, Class<?>> VALUE_TYPES = "
+          + "java.util.Map.ofEntries(");
+      for (int i = 0; i < accessors.size(); i++) {
+        out.println("      java.util.Map.entry(\"" + accessors.get(i).path + "\", "
+            + classLiteral(accessors.get(i).valueType) + ")"
+            + (i < accessors.size() - 1 ? "," : ""));
+      }
+      out.println("  );");
+      out.println();
+      out.println("  @Override");
+      out.println("  public Class<" + typeName + "> getType() {");
+      out.println("    return " + typeName + ".class;");
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  public java.util.Map<String, java.util.function.Function<" + typeName
+          + ", Object>> getAccessors() {");
+      out.println("    return ACCESSORS;");
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  public java.util.Map<String, Class<?>> getValueTypes() {");
+      out.println("    return VALUE_TYPES;");
+      out.println("  }");
+      out.println();
+      out.println("}");
+
+    } catch (IOException e) {
+      error(type, "Generating " + className + " failed: " + e.getMessage());
+    }
+  }
+
+  private String lambda(String typeName, Accessor accessor) {
+    if (accessor.segments.size() == 1) {
+      return "(java.util.function.Function<" + typeName + ", Object>) obj -> obj."
+          + accessor.segments.get(0);
+    }
+    StringBuilder sb = new StringBuilder("(java.util.function.Function<" + typeName
+        + ", Object>) obj -> {");
+    String variable = "obj";
+    for (int i = 0; i < accessor.segments.size() - 1; i++) {
+      String next = "v" + i;
+      sb.append(" Object ").append(next).append(" = ").append(variable).append('.')
+          .append(accessor.segments.get(i)).append(';')
+          .append(" if (").append(next).append(" == null) { return null; }");
+      variable = "((" + accessor.segmentTypes.get(i) + ") " + next + ")";
+    }
+    return sb.append(" return ").append(variable).append('.')
+        .append(accessor.segments.get(accessor.segments.size() - 1))
+        .append("; }")
+        .toString();
+  }
+
+  private String classLiteral(TypeMirror type) {
+    TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+    if (erasure.getKind().isPrimitive()) {
+      return processingEnv.getTypeUtils().boxedClass((PrimitiveType) erasure).getQualifiedName()
+          + ".class";
+    }
+    return erasure + ".class";
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+  }
+
+  private void note(Element element, String message) {
+    processingEnv.getMessager().printMessage(Kind.NOTE, message, element);
+  }
+
+  /**
+   * The accessor of a field name or path.
+   */
+  private class Accessor {
+
+    private final String path;
+
+    private final List<String> segments = new ArrayList<>();
+
+    private final List<String> segmentTypes = new ArrayList<>();
+
+    private TypeMirror valueType;
+
+    /**
+     * Instantiates a new accessor of a field path.
+     *
+     * @param path the normalized field path
+     */
+    Accessor(String path) {
+      this.path = path;
+    }
+
+    /**
+     * Instantiates a new accessor of a field name.
+     *
+     * @param name the field name
+     * @param segment the code, that reads the value (the field name or the method call)
+     * @param valueType the value type
+     */
+    Accessor(String name, String segment, TypeMirror valueType) {
+      this.path = name;
+      this.segments.add(segment);
+      this.valueType = valueType;
+    }
+  }
+
+}
@@ -16,8 +16,11 @@
 
 package org.bremersee.comparator.spring.converter;
 
-import java.util.Objects;
+import java.util.Optional;
+import org.bremersee.comparator.cache.CacheStatistics;
+import org.bremersee.comparator.cache.LruCache;
 import org.bremersee.comparator.model.SortOrder;
+import org.bremersee.comparator.model.SortOrdersTextParser;
 import org.bremersee.comparator.model.SortOrdersTextProperties;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.lang.NonNull;
@@ -25,11 +28,19 @@ import org.springframework.lang.NonNull;
 /**
  * The sort order converter.
  *
+ * <p>Optionally the converted sort orders can be cached, so that the same request parameters are
+ * not parsed again and again. The properties of a converter never change, so the cache is keyed
+ * by the source text only. A source text is cached, when it is converted the second time, so
+ * request parameters, that are sent only once, do not evict the cached sort orders. The cached
+ * sort orders are shared; they must not be modified.
+ *
  * @author Christian Bremer
  */
 public class SortOrderConverter implements Converter<String, SortOrder> {
 
-  private final SortOrdersTextProperties properties;
+  private final SortOrdersTextParser parser;
+
+  private final LruCache<String, SortOrder> cache;
 
   /**
    * Instantiates a new sort order converter.
@@ -44,11 +55,34 @@ public class SortOrderConverter implements Converter<String, SortOrder> {
    * @param properties the properties
    */
   public SortOrderConverter(SortOrdersTextProperties properties) {
-    this.properties = Objects.requireNonNullElse(properties, SortOrdersTextProperties.defaults());
+    this(properties, 0);
+  }
+
+  /**
+   * Instantiates a new sort order converter, that caches the converted sort orders.
+   *
+   * @param properties the properties
+   * @param cacheSize the maximum number of cached sort orders (if it is less than one, nothing is
+   *     cached)
+   */
+  public SortOrderConverter(SortOrdersTextProperties properties, int cacheSize) {
+    this.parser = new SortOrdersTextParser(properties);
+    this.cache = cacheSize > 0 ? new LruCache<>(cacheSize, true) : null;
   }
 
   @Override
   public SortOrder convert(@NonNull String source) {
-    return SortOrder.fromSortOrderText(source, properties);
+    return cache != null
+        ? cache.get(source, parser::parseSortOrder)
+        : parser.parseSortOrder(source);
+  }
+
+  /**
+   * Gets the statistics of the cache.
+   *
+   * @return the statistics of the cache; empty, if nothing is cached
+   */
+  public Optional<CacheStatistics> getCacheStatistics() {
+    return Optional.ofNullable(cache).map(LruCache::getStatistics);
   }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.spring.page;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.bremersee.comparator.Sorter;
+import org.bremersee.comparator.ValueExtractor;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.spring.mapper.SortMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * The page sorter returns the page, that is requested by a {@link Pageable}, of a collection in
+ * memory. The sort of the pageable is transformed into sort orders by the {@link SortMapper} and
+ * only the elements up to the end of the page are sorted (see {@link Sorter#page(Collection,
+ * SortOrders, ValueExtractor, long, int)}).
+ *
+ * @author Christian Bremer
+ */
+public abstract class PageSorter {
+
+  private PageSorter() {
+  }
+
+  /**
+   * Returns the requested page of the given elements.
+   *
+   * @param <T> the element type
+   * @param elements the elements (can be {@code null})
+   * @param pageable the pageable (can be {@code null}, then all elements are returned)
+   * @return the page
+   */
+  public static <T> Page<T> page(Collection<? extends T> elements, Pageable pageable) {
+    return page(elements, pageable, null);
+  }
+
+  /**
+   * Returns the requested page of the given elements. If the pageable is not sorted, the elements
+   * of the page are in the order of the given collection.
+   *
+   * @param <T> the element type
+   * @param elements the elements (can be {@code null})
+   * @param pageable the pageable (can be {@code null}, then all elements are returned)
+   * @param valueExtractor the value extractor (can be {@code null}, then a default will be used)
+   * @return the page
+   */
+  public static <T> Page<T> page(
+      Collection<? extends T> elements,
+      Pageable pageable,
+      ValueExtractor valueExtractor) {
+
+    Collection<? extends T> source = elements != null ? elements : List.of();
+    Pageable request = pageable != null ? pageable : Pageable.unpaged();
+    long offset = request.isPaged() ? request.getOffset() : 0L;
+    int size = request.isPaged() ? request.getPageSize() : source.size();
+    List<T> content;
+    if (request.getSort().isSorted()) {
+      SortOrders sortOrders = new SortOrders(SortMapper.fromSort(request.getSort()));
+      content = Sorter.page(source, sortOrders, valueExtractor, offset, size);
+    } else {
+      content = new ArrayList<>((int) Math.max(0L, Math.min(size, source.size() - offset)));
+      long index = 0;
+      for (T element : source) {
+        if (index >= offset + size) {
+          break;
+        }
+        if (index >= offset) {
+          content.add(element);
+        }
+        index++;
+      }
+    }
+    return new PageImpl<>(content, request, source.size());
+  }
+
+}
@@ -24,6 +24,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -126,6 +127,71 @@ class ComparatorChainTest {
     verify(comparatorB, times(0)).compare(any(), any());
   }
 
+  /**
+   * Test chains with up to five comparators, where only the last one decides.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  void testFixedArityAndLoop(SoftAssertions softly) {
+    for (int size = 1; size <= 5; size++) {
+      List<Comparator> comparators = new ArrayList<>();
+      for (int i = 1; i < size; i++) {
+        comparators.add((o1, o2) -> 0);
+      }
+      Comparator last = mock(Comparator.class);
+      when(last.compare(any(), any())).thenReturn(7);
+      comparators.add(last);
+      softly.assertThat(new ComparatorChain(comparators).compare(1, 2))
+          .as("Chain of %s comparators", size)
+          .isEqualTo(7);
+      verify(last, times(1)).compare(any(), any());
+    }
+    softly.assertThat(new ComparatorChain(List.of((o1, o2) -> 0, (o1, o2) -> 0, (o1, o2) -> 0,
+            (o1, o2) -> 0)).compare(1, 2))
+        .isZero();
+  }
+
+  /**
+   * Test that nested chains are flattened.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  @SuppressWarnings("rawtypes")
+  void testFlattenNestedChains(SoftAssertions softly) {
+    Comparator<?> c0 = mock(Comparator.class);
+    when(c0.toString()).thenReturn("c0");
+    Comparator<?> c1 = mock(Comparator.class);
+    when(c1.toString()).thenReturn("c1");
+    ComparatorChain nested = new ComparatorChain(List.of(c0, c1));
+    List<Comparator> comparators = new ArrayList<>();
+    comparators.add(nested);
+    comparators.add(null);
+    comparators.add(new ComparatorChain(List.of(c1)));
+    ComparatorChain chain = new ComparatorChain(comparators);
+    softly.assertThat(chain.toString())
+        .contains("c0, c1, c1")
+        .doesNotContain("ComparatorChain(comparators=[ComparatorChain");
+
+    ComparatorChain withEmptyChain = new ComparatorChain(List.of(
+        new ComparatorChain(null), Comparator.reverseOrder()));
+    softly.assertThat(withEmptyChain.compare(1, 2))
+        .as("An empty chain compares comparable objects, so it is not flattened.")
+        .isLessThan(0);
+
+    ComparatorChain reversed = new ComparatorChain(List.of(Comparator.naturalOrder())) {
+      @Override
+      public int compare(Object o1, Object o2) {
+        return super.compare(o2, o1);
+      }
+    };
+    softly.assertThat(new ComparatorChain(List.of(reversed)).compare(1, 2))
+        .as("A subclass of the chain is not flattened, so its comparison is kept.")
+        .isGreaterThan(0);
+  }
+
   /**
    * Test to string.
    */
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.testmodel.ComplexObject;
+import org.bremersee.comparator.testmodel.ComplexObjectExtension;
+import org.bremersee.comparator.testmodel.SimpleGetObject;
+import org.bremersee.comparator.testmodel.SimpleIsObject;
+import org.bremersee.comparator.testmodel.SimpleObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The compiled value extractor tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class CompiledValueExtractorTest {
+
+  private final CompiledValueExtractor extractor = new CompiledValueExtractor(false);
+
+  private final CompiledValueExtractor throwingExtractor = new CompiledValueExtractor();
+
+  /**
+   * Test returning of given object.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testReturningOfGivenObject(SoftAssertions softly) {
+    softly.assertThat(extractor.findValue(null, "foo")).isNull();
+    softly.assertThat(extractor.findValue("Object", "foo")).isNull();
+    softly.assertThat(extractor.findValue("Object", null))
+        .isEqualTo("Object");
+  }
+
+  /**
+   * Test illegal field and expect exception.
+   */
+  @Test
+  void testIllegalFieldAndExpectException() {
+    assertThatExceptionOfType(ValueExtractorException.class).isThrownBy(() -> throwingExtractor
+        .findValue("Object", "foo"));
+  }
+
+  /**
+   * Test objects.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testObjects(SoftAssertions softly) {
+    for (int i = 0; i < 3; i++) {
+      softly.assertThat(extractor.findValue(new SimpleObject(i), "number"))
+          .isEqualTo(i);
+      softly.assertThat(extractor.findValue(new SimpleGetObject(i, i + 1), "number"))
+          .isEqualTo(i);
+      softly.assertThat(extractor.findValue(new SimpleGetObject(i, i + 1), "anotherNumber"))
+          .isEqualTo(i + 1);
+    }
+    softly.assertThat(extractor.findValue(new SimpleIsObject(true), "nice"))
+        .isEqualTo(true);
+    softly.assertThat(extractor.findValue(new ComplexObject(new SimpleObject(4)), "simple.number"))
+        .isEqualTo(4);
+    softly.assertThat(extractor.findValue(
+            new ComplexObjectExtension(new SimpleObject(5), ""),
+            "simple.number"))
+        .isEqualTo(5);
+    softly.assertThat(extractor.findValue("abc", "length"))
+        .isEqualTo(3);
+    softly.assertThat(extractor.findValue("abc", "toUpperCase"))
+        .isEqualTo("ABC");
+  }
+
+  /**
+   * Test compile.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testCompile(SoftAssertions softly) {
+    softly.assertThat(extractor.findAccessor(SimpleGetObject.class, "number")
+            .flatMap(CompiledValueExtractor::compile))
+        .hasValueSatisfying(accessor -> assertThat(accessor.apply(new SimpleGetObject(7)))
+            .isEqualTo(7));
+    softly.assertThat(extractor.findAccessor(SimpleObject.class, "number")
+            .flatMap(CompiledValueExtractor::compile))
+        .hasValueSatisfying(accessor -> assertThat(accessor.apply(new SimpleObject(8)))
+            .isEqualTo(8));
+    softly.assertThat(extractor.findAccessor(String.class, "length")
+            .flatMap(CompiledValueExtractor::compile))
+        .as("Package java.lang is not opened, so the method cannot be compiled.")
+        .isEmpty();
+  }
+
+  /**
+   * Test sorting with compiled value extractor.
+   */
+  @Test
+  void testSorting() {
+    List<SimpleGetObject> list = new ArrayList<>(List.of(
+        new SimpleGetObject(3), new SimpleGetObject(1), new SimpleGetObject(2)));
+    list.sort(ComparatorBuilder.newInstance()
+        .add("number", false, true, false, extractor)
+        .build());
+    assertThat(list)
+        .containsExactly(new SimpleGetObject(3), new SimpleGetObject(2), new SimpleGetObject(1));
+  }
+
+  /**
+   * Test equals and hash code.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testEqualsAndHashCode(SoftAssertions softly) {
+    softly.assertThat(new CompiledValueExtractor(false))
+        .isEqualTo(new CompiledValueExtractor(false));
+    softly.assertThat(new CompiledValueExtractor(false))
+        .isNotEqualTo(new CompiledValueExtractor(true));
+    softly.assertThat(new CompiledValueExtractor())
+        .isNotEqualTo(new DefaultValueExtractor());
+    softly.assertThat(new CompiledValueExtractor().hashCode())
+        .isEqualTo(new CompiledValueExtractor().hashCode());
+    softly.assertThat(new CompiledValueExtractor(false).toString())
+        .contains("false");
+  }
+
+}
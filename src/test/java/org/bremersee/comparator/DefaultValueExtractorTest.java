@@ -19,6 +19,10 @@ package org.bremersee.comparator;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.bremersee.comparator.testmodel.ComplexObject;
@@ -90,6 +94,79 @@ class DefaultValueExtractorTest {
         .isEqualTo(5);
   }
 
+  /**
+   * Test that fields and methods are resolved only once per class.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testResolvingIsCached(SoftAssertions softly) {
+    AtomicInteger fieldLookups = new AtomicInteger();
+    AtomicInteger methodLookups = new AtomicInteger();
+    DefaultValueExtractor countingExtractor = new DefaultValueExtractor(false) {
+      @Override
+      public Optional<Field> findField(Class<?> clazz, String name) {
+        fieldLookups.incrementAndGet();
+        return super.findField(clazz, name);
+      }
+
+      @Override
+      public Optional<Method> findMethod(Class<?> clazz, String name) {
+        methodLookups.incrementAndGet();
+        return super.findMethod(clazz, name);
+      }
+    };
+    for (int i = 0; i < 10; i++) {
+      softly.assertThat(countingExtractor.findValue(new SimpleObject(i), "number"))
+          .isEqualTo(i);
+      softly.assertThat(countingExtractor.findValue(new SimpleObject(i), "foo"))
+          .isNull();
+      softly.assertThat(countingExtractor.findValue(new SimpleIsObject(true), "nice"))
+          .isEqualTo(true);
+    }
+    softly.assertThat(fieldLookups.get())
+        .as("Number of field lookups")
+        .isEqualTo(3);
+    softly.assertThat(methodLookups.get())
+        .as("Number of method lookups")
+        .isEqualTo(2);
+  }
+
+  /**
+   * Test that only a limited number of unknown field names is cached.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testUnknownNamesAreLimited(SoftAssertions softly) {
+    AtomicInteger fieldLookups = new AtomicInteger();
+    DefaultValueExtractor countingExtractor = new DefaultValueExtractor(false) {
+      @Override
+      public Optional<Field> findField(Class<?> clazz, String name) {
+        fieldLookups.incrementAndGet();
+        return super.findField(clazz, name);
+      }
+    };
+    SimpleObject obj = new SimpleObject(1);
+    for (int i = 0; i < 10_000; i++) {
+      softly.assertThat(countingExtractor.findValue(obj, "unknown" + i)).isNull();
+    }
+    softly.assertThat(fieldLookups.getAndSet(0)).isEqualTo(10_000);
+
+    countingExtractor.findValue(obj, "unknown0");
+    softly.assertThat(fieldLookups.getAndSet(0))
+        .as("The first unknown names are cached.")
+        .isZero();
+    countingExtractor.findValue(obj, "unknown9999");
+    countingExtractor.findValue(obj, "unknown9999");
+    softly.assertThat(fieldLookups.getAndSet(0))
+        .as("Unknown names beyond the limit are not cached.")
+        .isEqualTo(2);
+    softly.assertThat(countingExtractor.findValue(obj, "number"))
+        .as("Known names are still cached.")
+        .isEqualTo(1);
+  }
+
   /**
    * Test to string.
    */
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.testmodel.ComplexObject;
+import org.bremersee.comparator.testmodel.SimpleObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The field path tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class FieldPathTest {
+
+  /**
+   * Test empty field paths.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testEmpty(SoftAssertions softly) {
+    softly.assertThat(FieldPath.of(null).isEmpty()).isTrue();
+    softly.assertThat(FieldPath.of(null).getSource()).isNull();
+    softly.assertThat(FieldPath.of("").isEmpty()).isTrue();
+    softly.assertThat(FieldPath.of(" . .. ").isEmpty()).isTrue();
+    softly.assertThat(FieldPath.of(" . .. ").getSource()).isEqualTo(" . .. ");
+    softly.assertThat(FieldPath.of(null)).isEqualTo(FieldPath.of(""));
+  }
+
+  /**
+   * Test segments.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testSegments(SoftAssertions softly) {
+    FieldPath fieldPath = FieldPath.of(" .person..first Name. ");
+    softly.assertThat(fieldPath.size()).isEqualTo(2);
+    softly.assertThat(fieldPath.getSegment(0)).isEqualTo("person");
+    softly.assertThat(fieldPath.getSegments()).containsExactly("person", "first Name");
+    softly.assertThat(fieldPath.toString()).isEqualTo("person.first Name");
+    softly.assertThat(fieldPath).isEqualTo(FieldPath.of("person . first Name"));
+    softly.assertThat(fieldPath.hashCode())
+        .isEqualTo(FieldPath.of("person.first Name").hashCode());
+    softly.assertThat(fieldPath).isNotEqualTo(FieldPath.of("person"));
+  }
+
+  /**
+   * Test find value with field path.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testFindValue(SoftAssertions softly) {
+    ComplexObject obj = new ComplexObject(new SimpleObject(4));
+    softly.assertThat(new DefaultValueExtractor()
+            .findValueByPath(obj, FieldPath.of("simple.number")))
+        .isEqualTo(4);
+    softly.assertThat(new DefaultValueExtractor().findValueByPath(obj, FieldPath.of(null)))
+        .isEqualTo(obj);
+    ValueExtractor custom = (o, field) -> field;
+    softly.assertThat(custom.findValueByPath(obj, FieldPath.of(" simple..number")))
+        .as("Custom extractors get the source of the field path.")
+        .isEqualTo(" simple..number");
+    DefaultValueExtractor overriding = new DefaultValueExtractor() {
+      @Override
+      public Object findValue(Object obj, String fieldPath) {
+        return -((Integer) super.findValue(obj, fieldPath));
+      }
+    };
+    softly.assertThat(new ValueComparator("simple.number", true, true, false, overriding)
+            .compare(obj, new ComplexObject(new SimpleObject(5))))
+        .as("An overridden findValue(Object, String) is called by the comparators.")
+        .isGreaterThan(0);
+  }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.model.SortOrder;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Person;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The field path trie comparator tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class FieldPathTrieComparatorTest {
+
+  private static List<ValueComparator> createComparators(SortOrders sortOrders) {
+    return sortOrders.getSortOrders().stream()
+        .map(ValueComparator::new)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Test that the order is the same as the order of the value comparators.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "address.city;address.zip,desc;lastName",
+      "address.zip,desc,true,true;score;address.city,asc,true,false",
+      "score;age;score,desc",
+      "lastName;address.city;address.city,desc"
+  })
+  void testSameOrder(String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    List<Person> persons = RandomPersons.create(1000, 23L);
+    List<Person> expected = new ArrayList<>(persons);
+    List<Comparator> comparators = new ArrayList<>(createComparators(sortOrders));
+    expected.sort(new ComparatorChain(comparators)::compare);
+
+    List<Person> actual = new ArrayList<>(persons);
+    actual.sort(new FieldPathTrieComparator(createComparators(sortOrders))::compare);
+    assertThat(actual).containsExactlyElementsOf(expected);
+  }
+
+  /**
+   * Test that the reused values of a thread are reset after each comparison, even after an
+   * exception, and that several threads can use the comparator.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testReuse(SoftAssertions softly) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText("address.city;address.zip,desc");
+    FieldPathTrieComparator comparator = new FieldPathTrieComparator(
+        createComparators(sortOrders));
+    softly.assertThatExceptionOfType(ValueExtractorException.class)
+        .isThrownBy(() -> comparator.compare("a", "b"));
+
+    List<Person> persons = RandomPersons.create(20000, 29L);
+    Person[] expected = persons.toArray(new Person[0]);
+    List<Comparator> comparators = new ArrayList<>(createComparators(sortOrders));
+    Arrays.sort(expected, new ComparatorChain(comparators)::compare);
+    Person[] actual = persons.toArray(new Person[0]);
+    Arrays.parallelSort(actual, comparator::compare);
+    softly.assertThat(actual).containsExactly(expected);
+
+    SortOrders largerSortOrders = SortOrders.fromSortOrdersText(
+        "address.city,desc;address.zip;lastName;firstName,desc");
+    FieldPathTrieComparator larger = new FieldPathTrieComparator(
+        createComparators(largerSortOrders));
+    Arrays.sort(expected, new ComparatorChain(
+        new ArrayList<>(createComparators(largerSortOrders)))::compare);
+    Arrays.sort(actual, larger::compare);
+    softly.assertThat(actual)
+        .as("The scratch of the thread is shared by comparators of different sizes.")
+        .containsExactly(expected);
+    Arrays.sort(expected, new ComparatorChain(comparators)::compare);
+    Arrays.sort(actual, comparator::compare);
+    softly.assertThat(actual).containsExactly(expected);
+  }
+
+  /**
+   * Test is applicable.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testIsApplicable(SoftAssertions softly) {
+    softly.assertThat(FieldPathTrieComparator.isApplicable(createComparators(
+            SortOrders.fromSortOrdersText("address.city;address.zip"))))
+        .isTrue();
+    softly.assertThat(FieldPathTrieComparator.isApplicable(createComparators(
+            SortOrders.fromSortOrdersText("address;address.zip"))))
+        .isTrue();
+    softly.assertThat(FieldPathTrieComparator.isApplicable(createComparators(
+            SortOrders.fromSortOrdersText("lastName;address.zip"))))
+        .isFalse();
+    softly.assertThat(FieldPathTrieComparator.isApplicable(createComparators(
+            SortOrders.fromSortOrdersText("address.city"))))
+        .isFalse();
+    softly.assertThat(FieldPathTrieComparator.isApplicable(List.of(
+            new ValueComparator("address.city", true, true, false),
+            new ValueComparator("address.zip", true, true, false,
+                new DefaultValueExtractor(false)))))
+        .isFalse();
+    softly.assertThat(FieldPathTrieComparator.isTrieable(
+            new ValueComparator("address.city", true, true, false, (obj, field) -> obj)))
+        .isFalse();
+    softly.assertThat(FieldPathTrieComparator.isTrieable(Comparator.naturalOrder()))
+        .isFalse();
+  }
+
+  /**
+   * Test that the comparator builder uses the field path trie comparator.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testComparatorBuilder(SoftAssertions softly) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(
+        "lastName;address.city;address.zip,desc");
+    Comparator<Person> comparator = ComparatorBuilder.newInstance()
+        .add(Comparator.comparing(Person::getAge))
+        .addAll(sortOrders)
+        .add(new SortOrder("firstName", true, true, false))
+        .build();
+    softly.assertThat(comparator.toString())
+        .contains("FieldPathTrieComparator");
+
+    List<Person> persons = RandomPersons.create(500, 29L);
+    List<Person> expected = new ArrayList<>(persons);
+    expected.sort(Comparator.comparing(Person::getAge)
+        .thenComparing(new ValueComparator("lastName", true, true, false)::compare)
+        .thenComparing(new ValueComparator("address.city", true, true, false)::compare)
+        .thenComparing(new ValueComparator("address.zip", false, true, false)::compare)
+        .thenComparing(new ValueComparator("firstName", true, true, false)::compare));
+    persons.sort(comparator);
+    softly.assertThat(persons).containsExactlyElementsOf(expected);
+  }
+
+}
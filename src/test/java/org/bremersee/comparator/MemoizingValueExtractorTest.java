@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Person;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.bremersee.comparator.testmodel.SimpleObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The memoizing value extractor tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class MemoizingValueExtractorTest {
+
+  /**
+   * Test that each value is extracted once.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testSort(SoftAssertions softly) {
+    SortOrders sortOrders = SortOrders
+        .fromSortOrdersText("lastName,desc,true,false;address.city;score,asc,true,true");
+    List<Person> persons = RandomPersons.create(2000, 17L);
+    List<Person> expected = new ArrayList<>(persons);
+    expected.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+
+    AtomicInteger calls = new AtomicInteger();
+    ValueExtractor countingExtractor = (obj, field) -> {
+      calls.incrementAndGet();
+      return new DefaultValueExtractor().findValue(obj, field);
+    };
+    try (MemoizingValueExtractor valueExtractor = new MemoizingValueExtractor(countingExtractor)) {
+      Comparator<Person> comparator = ComparatorBuilder.newInstance()
+          .addAll(sortOrders, valueExtractor)
+          .build();
+      persons.sort(comparator);
+      softly.assertThat(persons).containsExactlyElementsOf(expected);
+      softly.assertThat(calls.get())
+          .as("Each value is extracted at most once.")
+          .isLessThanOrEqualTo(3 * 2000)
+          .isEqualTo(valueExtractor.size());
+    }
+  }
+
+  /**
+   * Test find value.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testFindValue(SoftAssertions softly) {
+    AtomicInteger calls = new AtomicInteger();
+    MemoizingValueExtractor valueExtractor = new MemoizingValueExtractor(
+        (obj, field) -> {
+          calls.incrementAndGet();
+          return new DefaultValueExtractor().findValue(obj, field);
+        });
+    SimpleObject obj = new SimpleObject(4);
+    SimpleObject equalObj = new SimpleObject(4);
+    softly.assertThat(valueExtractor.findValue(obj, "number")).isEqualTo(4);
+    softly.assertThat(valueExtractor.findValueByPath(obj, FieldPath.of(" number "))).isEqualTo(4);
+    softly.assertThat(calls.get()).isEqualTo(1);
+    softly.assertThat(valueExtractor.findValue(equalObj, "number")).isEqualTo(4);
+    softly.assertThat(calls.get())
+        .as("The values are cached by identity.")
+        .isEqualTo(2);
+    softly.assertThat(valueExtractor.findValue(null, "number")).isNull();
+    softly.assertThat(valueExtractor.findValueByPath(obj, null)).isSameAs(obj);
+    softly.assertThat(calls.get())
+        .as("Null objects and paths are not cached.")
+        .isEqualTo(4);
+    softly.assertThat(valueExtractor.size()).isEqualTo(2);
+    softly.assertThat(valueExtractor.toString()).contains("size=2");
+
+    valueExtractor.close();
+    softly.assertThat(valueExtractor.size()).isZero();
+    softly.assertThat(valueExtractor.findValue(obj, "number")).isEqualTo(4);
+    softly.assertThat(calls.get()).isEqualTo(5);
+  }
+
+  /**
+   * Test resize.
+   */
+  @Test
+  void testResize() {
+    MemoizingValueExtractor valueExtractor = new MemoizingValueExtractor();
+    List<SimpleObject> objects = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      objects.add(new SimpleObject(i));
+      valueExtractor.findValue(objects.get(i), "number");
+    }
+    assertThat(valueExtractor.size()).isEqualTo(1000);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(valueExtractor.findValue(objects.get(i), "number")).isEqualTo(i);
+    }
+    assertThat(valueExtractor.size()).isEqualTo(1000);
+  }
+
+}
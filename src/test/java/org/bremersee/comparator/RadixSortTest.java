@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The radix sort tests.
+ *
+ * @author Christian Bremer
+ */
+class RadixSortTest {
+
+  /**
+   * Test that the radix sort is stable and sorts like an unsigned comparison.
+   */
+  @Test
+  void testSort() {
+    Random random = new Random(23L);
+    byte[][] keys = new byte[5000][];
+    for (int i = 0; i < keys.length; i++) {
+      // long common prefixes, many equal keys and keys, that are prefixes of others
+      byte[] key = new byte[40 + random.nextInt(4)];
+      Arrays.fill(key, 0, 40, (byte) 0x80);
+      for (int j = 38; j < key.length; j++) {
+        key[j] = (byte) (random.nextInt(4) * 85);
+      }
+      keys[i] = key;
+    }
+    Integer[] expected = new Integer[keys.length];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = i;
+    }
+    Arrays.sort(expected, Comparator.comparing(i -> keys[i], Arrays::compareUnsigned));
+
+    assertThat(RadixSort.sort(keys))
+        .containsExactly(Arrays.stream(expected).mapToInt(Integer::intValue).toArray());
+  }
+
+  /**
+   * Test sort of few keys.
+   */
+  @Test
+  void testSortFewKeys() {
+    assertThat(RadixSort.sort(new byte[0][]))
+        .isEmpty();
+    assertThat(RadixSort.sort(new byte[][]{{2}, {1, 0}, {}, {1}, {(byte) 0xFF}, {1}}))
+        .containsExactly(2, 3, 5, 1, 0, 4);
+  }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.model.SortOrder;
+import org.bremersee.comparator.model.SortOrder.CollationStrength;
+import org.bremersee.comparator.model.SortOrder.Direction;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Measurement;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * The sort key encoder tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class SortKeyEncoderTest {
+
+  /**
+   * Sort orders of persons.
+   *
+   * @return the sort orders
+   */
+  static Stream<String> sortOrders() {
+    return TypedComparatorCompilerTest.sortOrders();
+  }
+
+  /**
+   * Sort orders of measurements.
+   *
+   * @return the sort orders
+   */
+  static Stream<String> measurementSortOrders() {
+    return TypedComparatorCompilerTest.measurementSortOrders();
+  }
+
+  /**
+   * Test that the keys of persons are in the order of the comparator chain.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("sortOrders")
+  void testSameOrder(String sortOrdersText) {
+    assertSameOrder(RandomPersons.create(1000, 5L), sortOrdersText);
+  }
+
+  /**
+   * Test that the keys of measurements are in the order of the comparator chain.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("measurementSortOrders")
+  void testSameOrderOfMeasurements(String sortOrdersText) {
+    assertSameOrder(Measurement.create(1000, 5L), sortOrdersText);
+  }
+
+  private static void assertSameOrder(List<?> list, String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    Comparator<Object> comparator = ComparatorBuilder.newInstance().addAll(sortOrders).build();
+    SortKeyEncoder encoder = new SortKeyEncoder(sortOrders);
+    List<byte[]> keys = new ArrayList<>();
+    for (Object element : list) {
+      keys.add(encoder.encode(element));
+    }
+    for (int i = 0; i < list.size(); i++) {
+      for (int j = i; j < list.size(); j += 7) {
+        assertThat(Integer.signum(SortKeyEncoder.compare(keys.get(i), keys.get(j))))
+            .as("Comparing %s with %s", list.get(i), list.get(j))
+            .isEqualTo(Integer.signum(comparator.compare(list.get(i), list.get(j))));
+      }
+    }
+  }
+
+  /**
+   * Test strings.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testStrings(SoftAssertions softly) {
+    char[] chars = {'a', 'A', 'b', 'z', '\u0000', '\u007e', '\u007f', '\u00df', '\u00ff',
+        '\u00b5', '\u0130', '\u0131', '\u03bc', '\u3f7e', '\u3f7f', '\u3f80', '\uffff'};
+    Random random = new Random(17L);
+    List<String> values = new ArrayList<>();
+    values.add("");
+    for (int i = 0; i < 300; i++) {
+      StringBuilder sb = new StringBuilder();
+      int length = random.nextInt(4);
+      for (int j = 0; j < length; j++) {
+        sb.append(chars[random.nextInt(chars.length)]);
+      }
+      values.add(sb.toString());
+    }
+    for (boolean asc : new boolean[]{true, false}) {
+      for (boolean ignoreCase : new boolean[]{true, false}) {
+        ValueComparator comparator = new ValueComparator(null, asc, ignoreCase, false);
+        SortKeyEncoder encoder = new SortKeyEncoder(
+            List.of(new SortOrder(null, asc, ignoreCase, false)), null);
+        for (String v1 : values) {
+          for (String v2 : values) {
+            softly.assertThat(Integer.signum(
+                    SortKeyEncoder.compare(encoder.encode(v1), encoder.encode(v2))))
+                .as("Comparing '%s' with '%s' (asc = %s, ignoreCase = %s)",
+                    v1, v2, asc, ignoreCase)
+                .isEqualTo(Integer.signum(comparator.compare(v1, v2)));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Test collated strings.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testCollatedStrings(SoftAssertions softly) {
+    List<String> values = List.of("", "a", "A", "\u00e4", "\u00c4", "ab", "\u00e4b", "b", "Zebra",
+        "\u00f6de", "Otto", "\u00df", "ss");
+    for (SortOrder sortOrder : List.of(
+        SortOrder.by(null).with(Locale.GERMANY),
+        SortOrder.by(null).with(Locale.GERMANY).with(Direction.DESC),
+        SortOrder.by(null).with(Locale.FRANCE).with(CollationStrength.IDENTICAL))) {
+      ValueComparator comparator = new ValueComparator(sortOrder, null);
+      SortKeyEncoder encoder = new SortKeyEncoder(List.of(sortOrder), null);
+      for (String v1 : values) {
+        for (String v2 : values) {
+          softly.assertThat(Integer.signum(
+                  SortKeyEncoder.compare(encoder.encode(v1), encoder.encode(v2))))
+              .as("Comparing '%s' with '%s' (%s)", v1, v2, sortOrder)
+              .isEqualTo(Integer.signum(comparator.compare(v1, v2)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Test temporal values.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testTemporalValues(SoftAssertions softly) {
+    List<List<?>> valueLists = List.of(
+        List.of(Duration.ofSeconds(-1, 5), Duration.ZERO, Duration.ofMillis(1), Duration.ofDays(2)),
+        List.of(LocalTime.MIN, LocalTime.NOON, LocalTime.of(12, 0, 0, 1), LocalTime.MAX),
+        List.of(LocalDateTime.of(1960, 1, 1, 12, 0), LocalDateTime.of(2022, 1, 1, 0, 0),
+            LocalDateTime.of(2022, 1, 1, 0, 0, 0, 1)),
+        List.of(new Date(-1000L), new Date(0L), new Date(1000L)));
+    SortKeyEncoder encoder = new SortKeyEncoder(SortOrders.by());
+    for (List<?> values : valueLists) {
+      for (int i = 1; i < values.size(); i++) {
+        softly.assertThat(SortKeyEncoder.compare(
+                encoder.encode(values.get(i - 1)), encoder.encode(values.get(i))))
+            .as("%s < %s", values.get(i - 1), values.get(i))
+            .isLessThan(0);
+      }
+    }
+  }
+
+  /**
+   * Test values, that cannot be encoded.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testNotEncodable(SoftAssertions softly) {
+    softly.assertThatExceptionOfType(ComparatorException.class)
+        .isThrownBy(() -> new SortKeyEncoder(SortOrders.by()).encode(BigDecimal.ONE));
+    softly.assertThatExceptionOfType(ComparatorException.class)
+        .isThrownBy(() -> new SortKeyEncoder(SortOrders.by(new SortOrder(null, true, true, true)))
+            .encode("\ud83d\ude00"));
+    softly.assertThat(new SortKeyEncoder(SortOrders.by(new SortOrder(null, true, false, true)))
+            .encode("\ud83d\ude00"))
+        .isNotEmpty();
+  }
+
+  /**
+   * Test get prefix.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testGetPrefix(SoftAssertions softly) {
+    softly.assertThat(SortKeyEncoder.getPrefix(new byte[0]))
+        .isZero();
+    softly.assertThat(SortKeyEncoder.getPrefix(new byte[]{1, 2}))
+        .isEqualTo(0x0102000000000000L);
+    softly.assertThat(SortKeyEncoder.getPrefix(new byte[]{(byte) 0xFF, 0, 0, 0, 0, 0, 0, 1, 2}))
+        .isEqualTo(0xFF00000000000001L);
+    softly.assertThat(new SortKeyEncoder((SortOrders) null).toString())
+        .contains("SortKeyEncoder");
+  }
+
+  /**
+   * Test encode with value extractor.
+   */
+  @Test
+  void testEncodeWithValueExtractor() {
+    SortKeyEncoder encoder = new SortKeyEncoder(
+        SortOrders.fromSortOrdersText("foo"), (obj, field) -> 42);
+    assertThat(encoder.encode(new Object()))
+        .containsExactly(1, 0x80, 0, 0, 42);
+  }
+
+}
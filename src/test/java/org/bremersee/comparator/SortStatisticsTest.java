@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The sort statistics tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class SortStatisticsTest {
+
+  /**
+   * Test already sorted and reversed.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testAlreadySortedAndReversed(SoftAssertions softly) {
+    softly.assertThat(new SortStatistics(0, 0).isAlreadySorted()).isTrue();
+    softly.assertThat(new SortStatistics(0, 0).isReversed()).isFalse();
+    softly.assertThat(new SortStatistics(1, 1).isAlreadySorted()).isTrue();
+    softly.assertThat(new SortStatistics(1, 1).isReversed()).isFalse();
+    softly.assertThat(new SortStatistics(5, 1).isAlreadySorted()).isTrue();
+    softly.assertThat(new SortStatistics(5, 5).isReversed()).isTrue();
+    softly.assertThat(new SortStatistics(5, 3).isAlreadySorted()).isFalse();
+    softly.assertThat(new SortStatistics(5, 3).isReversed()).isFalse();
+  }
+
+  /**
+   * Test cardinalities.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testCardinalities(SoftAssertions softly) {
+    softly.assertThat(new SortStatistics(5, 3).getCardinalities()).isEmpty();
+    softly.assertThat(new SortStatistics(5, 3).isDictionaryEncoded()).isFalse();
+    softly.assertThat(new SortStatistics(5, 3, new int[]{-1, -1}).isDictionaryEncoded()).isFalse();
+    int[] cardinalities = {-1, 2};
+    SortStatistics statistics = new SortStatistics(5, 3, cardinalities);
+    softly.assertThat(statistics.isDictionaryEncoded()).isTrue();
+    softly.assertThat(statistics.getCardinalities()).containsExactly(-1, 2);
+    statistics.getCardinalities()[1] = 7;
+    softly.assertThat(statistics.getCardinalities()).containsExactly(-1, 2);
+  }
+
+  /**
+   * Test equals, hash code and to string.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testEqualsAndHashCode(SoftAssertions softly) {
+    softly.assertThat(new SortStatistics(5, 3)).isEqualTo(new SortStatistics(5, 3));
+    softly.assertThat(new SortStatistics(5, 3).hashCode())
+        .isEqualTo(new SortStatistics(5, 3).hashCode());
+    softly.assertThat(new SortStatistics(5, 3)).isNotEqualTo(new SortStatistics(5, 2));
+    softly.assertThat(new SortStatistics(5, 3).toString()).contains("runs=3");
+    softly.assertThat(new SortStatistics(5, 3, new int[]{2}))
+        .isEqualTo(new SortStatistics(5, 3, new int[]{2}));
+    softly.assertThat(new SortStatistics(5, 3, new int[]{2}).toString())
+        .contains("cardinalities=[2]");
+  }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Person;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The sorted merge tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class SortedMergeTest {
+
+  private static final SortOrders SORT_ORDERS = SortOrders
+      .fromSortOrdersText("lastName,desc,true,false;address.city;score,asc,true,true");
+
+  private static List<List<Person>> createShards(List<Person> persons, int count) {
+    Comparator<Person> comparator = ComparatorBuilder.newInstance().addAll(SORT_ORDERS).build();
+    List<List<Person>> shards = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      shards.add(new ArrayList<>());
+    }
+    for (int i = 0; i < persons.size(); i++) {
+      shards.get((i * 7 + i / 3) % count).add(persons.get(i));
+    }
+    shards.forEach(shard -> shard.sort(comparator));
+    return shards;
+  }
+
+  /**
+   * Test merge of iterators.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testIterator(SoftAssertions softly) {
+    List<Person> persons = RandomPersons.create(1000, 5L);
+    List<List<Person>> shards = createShards(persons, 5);
+    shards.add(new ArrayList<>());
+
+    List<Person> expected = shards.stream()
+        .flatMap(List::stream)
+        .collect(Collectors.toList());
+    expected.sort(ComparatorBuilder.newInstance().addAll(SORT_ORDERS).build());
+
+    Iterator<Person> iterator = SortedMerge.iterator(
+        shards.stream().map(List::iterator).collect(Collectors.toList()), SORT_ORDERS);
+    List<Person> actual = new ArrayList<>();
+    iterator.forEachRemaining(actual::add);
+    softly.assertThat(actual)
+        .as("The merge is stable.")
+        .containsExactlyElementsOf(expected);
+    softly.assertThatExceptionOfType(NoSuchElementException.class)
+        .isThrownBy(iterator::next);
+  }
+
+  /**
+   * Test that the merge is lazy.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testLazyMerge(SoftAssertions softly) {
+    AtomicInteger reads = new AtomicInteger();
+    Stream<Integer> source1 = Stream.iterate(0, i -> i + 2).peek(i -> reads.incrementAndGet());
+    Stream<Integer> source2 = Stream.iterate(1, i -> i + 2).peek(i -> reads.incrementAndGet());
+    Iterator<Integer> iterator = SortedMerge.iterator(
+        List.of(source1.iterator(), source2.iterator()), (SortOrders) null);
+    softly.assertThat(reads.get()).isZero();
+    List<Integer> actual = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      actual.add(iterator.next());
+    }
+    softly.assertThat(actual).containsExactly(0, 1, 2, 3, 4);
+    softly.assertThat(reads.get()).isEqualTo(6);
+  }
+
+  /**
+   * Test merge of streams.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testStream(SoftAssertions softly) {
+    AtomicInteger closed = new AtomicInteger();
+    List<Stream<Integer>> sources = List.of(
+        Stream.of(1, 4, 7).onClose(closed::incrementAndGet),
+        Stream.of(2, 5, 8).onClose(closed::incrementAndGet),
+        Stream.<Integer>empty().onClose(closed::incrementAndGet),
+        Stream.of(3, 6, 9).onClose(closed::incrementAndGet));
+    try (Stream<Integer> merged = SortedMerge.stream(sources, SortOrders.fromSortOrdersText(""))) {
+      softly.assertThat(merged.collect(Collectors.toList()))
+          .containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+    softly.assertThat(closed.get()).isEqualTo(4);
+
+    try (Stream<Integer> merged = SortedMerge.stream(
+        List.of(Stream.of(9, 5, 1), Stream.of(8, 2)), Comparator.reverseOrder(), true)) {
+      softly.assertThat(merged.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+          .containsExactly(9, 8, 5, 2, 1);
+    }
+  }
+
+  /**
+   * Test spliterator.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testSpliterator(SoftAssertions softly) {
+    Comparator<Integer> comparator = Comparator.naturalOrder();
+    Spliterator<Integer> spliterator = SortedMerge.spliterator(
+        List.of(List.of(1, 3).iterator(), List.of(2).iterator()), comparator, false);
+    softly.assertThat(spliterator.hasCharacteristics(Spliterator.SORTED)).isTrue();
+    softly.assertThat(spliterator.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+    softly.assertThat(spliterator.getComparator()).isSameAs(comparator);
+    softly.assertThat(spliterator.trySplit()).isNull();
+    List<Integer> actual = new ArrayList<>();
+    spliterator.forEachRemaining(actual::add);
+    softly.assertThat(actual).containsExactly(1, 2, 3);
+  }
+
+  /**
+   * Test verification of unsorted source.
+   */
+  @Test
+  void testVerify() {
+    List<Iterator<Integer>> sources = List.of(
+        List.of(1, 2, 3).iterator(), List.of(4, 6, 5).iterator());
+    Iterator<Integer> iterator = SortedMerge.iterator(sources, Comparator.naturalOrder(), true);
+    assertThat(iterator.next()).isEqualTo(1);
+    assertThatExceptionOfType(ComparatorException.class)
+        .isThrownBy(() -> iterator.forEachRemaining(i -> {
+        }))
+        .withMessageContaining("Source 1");
+
+    Iterator<Integer> unverified = SortedMerge.iterator(
+        List.of(List.of(2, 1).iterator()), Comparator.naturalOrder(), false);
+    List<Integer> actual = new ArrayList<>();
+    unverified.forEachRemaining(actual::add);
+    assertThat(actual).containsExactly(2, 1);
+  }
+
+}
@@ -0,0 +1,492 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.model.SortOrder;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Measurement;
+import org.bremersee.comparator.testmodel.Person;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.bremersee.comparator.testmodel.SimpleObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * The sorter tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class SorterTest {
+
+  /**
+   * Sort orders, that are used for the comparison.
+   *
+   * @return the sort orders
+   */
+  static Stream<String> sortOrders() {
+    return TypedComparatorCompilerTest.sortOrders();
+  }
+
+  /**
+   * Test that the sorter sorts like the comparator chain.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("sortOrders")
+  void testSameOrder(String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    List<Person> expected = RandomPersons.create(2000, 7L);
+    List<Person> actual = new LinkedList<>(expected);
+    expected.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+    Sorter.sort(actual, sortOrders);
+    assertThat(actual)
+        .containsExactlyElementsOf(expected);
+  }
+
+  /**
+   * Test that the radix sort sorts like the comparator chain.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("sortOrders")
+  void testRadixSortSameOrder(String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    List<Person> expected = RandomPersons.create(2000, 8L);
+    List<Person> actual = new LinkedList<>(expected);
+    expected.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+    Sorter.radixSort(actual, sortOrders);
+    assertThat(actual)
+        .containsExactlyElementsOf(expected);
+  }
+
+  /**
+   * Test that the radix sort sorts measurements like the comparator chain.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("org.bremersee.comparator.TypedComparatorCompilerTest#measurementSortOrders")
+  void testRadixSortSameOrderOfMeasurements(String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    List<Measurement> expected = Measurement.create(2000, 9L);
+    List<Measurement> actual = new ArrayList<>(expected);
+    expected.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+    Sorter.radixSort(actual, sortOrders);
+    assertThat(actual)
+        .containsExactlyElementsOf(expected);
+  }
+
+  /**
+   * Test that the radix sort falls back to the comparison of values, that cannot be encoded.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testRadixSortFallback(SoftAssertions softly) {
+    List<BigDecimal> list = new ArrayList<>(List.of(
+        BigDecimal.TEN, BigDecimal.ONE, new BigDecimal("1.0"), BigDecimal.ZERO));
+    Sorter.radixSort(list, null);
+    softly.assertThat(list)
+        .containsExactly(BigDecimal.ZERO, BigDecimal.ONE, new BigDecimal("1.0"), BigDecimal.TEN);
+
+    List<String> strings = new ArrayList<>(List.of("b", "a"));
+    Sorter.radixSort(strings, SortOrders.by(), new CompiledValueExtractor());
+    softly.assertThat(strings)
+        .containsExactly("a", "b");
+    softly.assertThatCode(() -> Sorter.radixSort(null, null))
+        .doesNotThrowAnyException();
+  }
+
+  /**
+   * Test that the parallel sort sorts like the comparator chain.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("sortOrders")
+  void testParallelSortSameOrder(String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    List<Person> expected = RandomPersons.create(20000, 10L);
+    List<Person> actual = new ArrayList<>(expected);
+    expected.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+    Sorter.parallelSort(actual, sortOrders);
+    assertThat(actual)
+        .containsExactlyElementsOf(expected);
+  }
+
+  /**
+   * Test that the values are extracted by the calling thread, if the value extractor is not
+   * thread safe.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testParallelSortWithValueExtractor(SoftAssertions softly) {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    ValueExtractor valueExtractor = (obj, field) -> {
+      threads.add(Thread.currentThread());
+      return obj;
+    };
+    List<Integer> list = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      list.add((i * 7919) % 5000);
+    }
+    Sorter.parallelSort(list, SortOrders.fromSortOrdersText("value"), valueExtractor, 100);
+    softly.assertThat(list)
+        .isSorted();
+    softly.assertThat(threads)
+        .containsExactly(Thread.currentThread());
+
+    list = new ArrayList<>(List.of(3, 1, 2));
+    Sorter.parallelSort(list, null, null, 0);
+    softly.assertThat(list)
+        .containsExactly(1, 2, 3);
+    list = new ArrayList<>(List.of(3, 1, 2));
+    Sorter.parallelSort(list, SortOrders.by(), null);
+    softly.assertThat(list)
+        .containsExactly(1, 2, 3);
+    softly.assertThatCode(() -> Sorter.parallelSort(null, null))
+        .doesNotThrowAnyException();
+  }
+
+  /**
+   * Test that a page contains the elements of the fully sorted list.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("sortOrders")
+  void testPage(String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    List<Person> persons = RandomPersons.create(1000, 12L);
+    List<Person> sorted = new ArrayList<>(persons);
+    sorted.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+    for (int[] page : new int[][]{{0, 1}, {0, 10}, {20, 10}, {990, 20}, {995, 5}, {0, 1000}}) {
+      assertThat(Sorter.page(persons, sortOrders, page[0], page[1]))
+          .as("Page %s, %s", page[0], page[1])
+          .containsExactlyElementsOf(sorted.subList(page[0], page[0] + page[1] > 1000
+              ? 1000 : page[0] + page[1]));
+    }
+    assertThat(Sorter.topK(persons, sortOrders, 7))
+        .containsExactlyElementsOf(sorted.subList(0, 7));
+  }
+
+  /**
+   * Test page edge cases.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testPageEdgeCases(SoftAssertions softly) {
+    List<Integer> list = List.of(5, 3, 4, 1, 2);
+    softly.assertThat(Sorter.page(list, null, 1, 2))
+        .containsExactly(2, 3);
+    softly.assertThat(Sorter.page(list, null, 5, 2))
+        .isEmpty();
+    softly.assertThat(Sorter.page(list, null, 0, 0))
+        .isEmpty();
+    softly.assertThat(Sorter.page(null, null, 0, 10))
+        .isEmpty();
+    softly.assertThat(Sorter.page(list, SortOrders.fromSortOrdersText("value,desc"),
+            (obj, field) -> obj, 3, Integer.MAX_VALUE))
+        .containsExactly(2, 1);
+    softly.assertThatIllegalArgumentException()
+        .isThrownBy(() -> Sorter.page(list, null, -1, 2));
+    softly.assertThatIllegalArgumentException()
+        .isThrownBy(() -> Sorter.page(list, null, 0, -2));
+  }
+
+  /**
+   * Test that the lazy sort returns the order of the fully sorted list.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("sortOrders")
+  void testLazySort(String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    List<Person> persons = RandomPersons.create(1000, 14L);
+    List<Person> sorted = new ArrayList<>(persons);
+    sorted.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+    List<Person> actual = new ArrayList<>();
+    Sorter.lazySort(persons, sortOrders).forEachRemaining(actual::add);
+    assertThat(actual).containsExactlyElementsOf(sorted);
+    assertThat(Sorter.lazySortedStream(persons, sortOrders).limit(25))
+        .containsExactlyElementsOf(sorted.subList(0, 25));
+  }
+
+  /**
+   * Test lazy sort edge cases.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testLazySortEdgeCases(SoftAssertions softly) {
+    softly.assertThat(Sorter.lazySort(null, null)).isExhausted();
+    softly.assertThat(Sorter.lazySort(List.of(), null)).isExhausted();
+    softly.assertThat(Sorter.lazySortedStream(List.of(5, 3, 4, 1, 2), null))
+        .containsExactly(1, 2, 3, 4, 5);
+    softly.assertThat(Sorter.lazySortedStream(List.of(5, 3, 4, 1, 2),
+            SortOrders.fromSortOrdersText("value,desc"), (obj, field) -> obj))
+        .containsExactly(5, 4, 3, 2, 1);
+    Iterator<Integer> iterator = Sorter.lazySort(List.of(1), null);
+    softly.assertThat(iterator.next()).isEqualTo(1);
+    softly.assertThatExceptionOfType(NoSuchElementException.class)
+        .isThrownBy(iterator::next);
+  }
+
+  /**
+   * Test that sorted and reversed lists are detected.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testSortStatistics(SoftAssertions softly) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText("number,desc");
+    List<SimpleObject> sorted = List.of(
+        new SimpleObject(3), new SimpleObject(2), new SimpleObject(2), new SimpleObject(1));
+    List<SimpleObject> unmodifiable = Collections.unmodifiableList(sorted);
+    SortStatistics statistics = Sorter.sort(unmodifiable, sortOrders);
+    softly.assertThat(statistics.isAlreadySorted())
+        .as("A sorted list is not written.")
+        .isTrue();
+    softly.assertThat(statistics.getRuns()).isEqualTo(1);
+    softly.assertThat(Sorter.parallelSort(unmodifiable, sortOrders, null, 2).isAlreadySorted())
+        .isTrue();
+
+    List<SimpleObject> reversed = new ArrayList<>(List.of(
+        new SimpleObject(1), new SimpleObject(2), new SimpleObject(3)));
+    statistics = Sorter.sort(reversed, sortOrders);
+    softly.assertThat(statistics.isReversed()).isTrue();
+    softly.assertThat(reversed)
+        .containsExactly(new SimpleObject(3), new SimpleObject(2), new SimpleObject(1));
+
+    List<Integer> numbers = new LinkedList<>(List.of(5, 4, 3, 2, 1));
+    softly.assertThat(Sorter.parallelSort(numbers, null, null, 2).isReversed()).isTrue();
+    softly.assertThat(numbers).containsExactly(1, 2, 3, 4, 5);
+
+    numbers = new ArrayList<>(List.of(1, 3, 2, 4, 4, 0));
+    statistics = Sorter.sort(numbers, null);
+    softly.assertThat(statistics.getRuns()).isEqualTo(3);
+    softly.assertThat(statistics.isAlreadySorted()).isFalse();
+    softly.assertThat(statistics.isReversed()).isFalse();
+    softly.assertThat(numbers).containsExactly(0, 1, 2, 3, 4, 4);
+
+    softly.assertThat(Sorter.sort(null, null).getSize()).isZero();
+    softly.assertThat(Sorter.sort(List.of(1), null).isAlreadySorted()).isTrue();
+  }
+
+  /**
+   * Test that strings with a low cardinality are dictionary encoded.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testDictionaryEncoding(SoftAssertions softly) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(
+        "lastName,asc,true;firstName,desc,false,true;age;address.city,asc,true,false,de-DE");
+    List<Person> expected = RandomPersons.create(500, 21L);
+    List<Person> actual = new ArrayList<>(expected);
+    expected.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+    SortStatistics statistics = Sorter.sort(actual, sortOrders);
+    softly.assertThat(actual)
+        .containsExactlyElementsOf(expected);
+    softly.assertThat(statistics.isDictionaryEncoded())
+        .isTrue();
+    softly.assertThat(statistics.getCardinalities())
+        .as("Names and cities (with equal collation keys of 'Berlin' and 'berlin') are encoded, "
+            + "ages are not.")
+        .containsExactly(9, 9, -1, 4);
+
+    List<String> strings = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      strings.add("value" + (i * 7 % 100));
+    }
+    statistics = Sorter.sort(strings, SortOrders.fromSortOrdersText("toString"));
+    softly.assertThat(statistics.isDictionaryEncoded())
+        .as("Too many distinct values are not encoded.")
+        .isFalse();
+    softly.assertThat(statistics.getCardinalities())
+        .containsExactly(-1);
+    softly.assertThat(strings)
+        .isSorted();
+
+    strings = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      strings.add("value" + (i * 7 % 300));
+    }
+    statistics = Sorter.sort(strings, SortOrders.fromSortOrdersText("toString"));
+    softly.assertThat(statistics.getCardinalities())
+        .as("More than 256 distinct values are not encoded.")
+        .containsExactly(-1);
+    softly.assertThat(strings)
+        .isSorted();
+
+    actual = new ArrayList<>(RandomPersons.create(500, 21L));
+    statistics = Sorter.parallelSort(actual, sortOrders, null, 2);
+    softly.assertThat(actual)
+        .containsExactlyElementsOf(expected);
+    softly.assertThat(statistics.getCardinalities())
+        .as("The parallel sort does not encode.")
+        .containsExactly(-1, -1, -1, -1);
+
+    statistics = Sorter.sort(actual, sortOrders);
+    softly.assertThat(statistics.isAlreadySorted())
+        .isTrue();
+    softly.assertThat(statistics.getCardinalities())
+        .as("A sorted list is not encoded.")
+        .containsExactly(-1, -1, -1, -1);
+
+    softly.assertThat(Sorter.sort(new ArrayList<>(List.of(3, 1, 2)), null).getCardinalities())
+        .isEmpty();
+  }
+
+  /**
+   * Test is sorted.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testIsSorted(SoftAssertions softly) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText("lastName;firstName,desc");
+    List<Person> persons = RandomPersons.create(200, 3L);
+    softly.assertThat(Sorter.isSorted(persons, sortOrders)).isFalse();
+    Sorter.sort(persons, sortOrders);
+    softly.assertThat(Sorter.isSorted(persons, sortOrders)).isTrue();
+
+    AtomicInteger calls = new AtomicInteger();
+    ValueExtractor countingExtractor = (obj, field) -> {
+      calls.incrementAndGet();
+      return new DefaultValueExtractor().findValue(obj, field);
+    };
+    softly.assertThat(Sorter.isSorted(persons, sortOrders, countingExtractor)).isTrue();
+    softly.assertThat(calls.get())
+        .as("The values of each element are extracted once.")
+        .isEqualTo(400);
+
+    softly.assertThat(Sorter.isSorted(List.of(1, 1, 2), null)).isTrue();
+    softly.assertThat(Sorter.isSorted(List.of(2, 1), null)).isFalse();
+    softly.assertThat(Sorter.isSorted(null, null)).isTrue();
+  }
+
+  /**
+   * Test that strings of sort orders with a locale are sorted by the collator.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testCollatedSort(SoftAssertions softly) {
+    List<Person> persons = List.of(
+        new Person("Zander", "a", 1, null, null),
+        new Person("\u00c4rger", "b", 2, null, null),
+        new Person("Abel", "c", 3, null, null),
+        new Person("\u00f6de", "d", 4, null, null),
+        new Person("Otto", "e", 5, null, null));
+    Map<String, List<String>> lastNames = Map.of(
+        "lastName,asc,true,false,de-DE",
+        List.of("Abel", "\u00c4rger", "\u00f6de", "Otto", "Zander"),
+        "lastName,desc,false,false,de-DE,tertiary;age,asc",
+        List.of("Zander", "Otto", "\u00f6de", "\u00c4rger", "Abel"));
+    for (String sortOrdersText : lastNames.keySet()) {
+      SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+      List<Person> expected = new ArrayList<>(persons);
+      expected.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+      softly.assertThat(expected)
+          .extracting(Person::getLastName)
+          .containsExactlyElementsOf(lastNames.get(sortOrdersText));
+
+      List<Person> actual = new ArrayList<>(persons);
+      Sorter.sort(actual, sortOrders);
+      softly.assertThat(actual).containsExactlyElementsOf(expected);
+      actual = new ArrayList<>(persons);
+      Sorter.radixSort(actual, sortOrders);
+      softly.assertThat(actual).containsExactlyElementsOf(expected);
+      actual = new ArrayList<>(persons);
+      actual.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build(Person.class));
+      softly.assertThat(actual).containsExactlyElementsOf(expected);
+    }
+  }
+
+  /**
+   * Test sort with value extractor.
+   */
+  @Test
+  void testSortWithValueExtractor() {
+    List<SimpleObject> list = new ArrayList<>(List.of(
+        new SimpleObject(2), new SimpleObject(3), new SimpleObject(1)));
+    Sorter.sort(
+        list,
+        new SortOrders(List.of(new SortOrder("number", false, false, false))),
+        new CompiledValueExtractor());
+    assertThat(list)
+        .containsExactly(new SimpleObject(3), new SimpleObject(2), new SimpleObject(1));
+  }
+
+  /**
+   * Test sort without sort orders.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testSortWithoutSortOrders(SoftAssertions softly) {
+    List<String> list = new ArrayList<>(List.of("c", "a", "b"));
+    Sorter.sort(list, null);
+    softly.assertThat(list)
+        .containsExactly("a", "b", "c");
+
+    list = new ArrayList<>(List.of("c", "a", "b"));
+    Sorter.sort(list, SortOrders.by());
+    softly.assertThat(list)
+        .containsExactly("a", "b", "c");
+
+    softly.assertThatCode(() -> Sorter.sort(null, SortOrders.by()))
+        .doesNotThrowAnyException();
+  }
+
+  /**
+   * Test sort of not comparable values.
+   */
+  @Test
+  void testSortNotComparable() {
+    List<SimpleObject> list = new ArrayList<>(List.of(new SimpleObject(2), new SimpleObject(1)));
+    assertThatExceptionOfType(ComparatorException.class)
+        .isThrownBy(() -> Sorter.sort(list, SortOrders.fromSortOrdersText("")));
+  }
+
+}
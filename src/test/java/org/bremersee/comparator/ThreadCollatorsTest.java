@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import java.text.Collator;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The thread collators tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class ThreadCollatorsTest {
+
+  /**
+   * Test that each thread gets its own clone.
+   *
+   * @param softly the soft assertions
+   * @throws Exception if the other thread fails
+   */
+  @Test
+  void testClonePerThread(SoftAssertions softly) throws Exception {
+    Collator collator = Collator.getInstance(Locale.GERMANY);
+    collator.setStrength(Collator.PRIMARY);
+    Collator clone = ThreadCollators.get(collator);
+    softly.assertThat(clone)
+        .isNotSameAs(collator)
+        .isEqualTo(collator);
+    softly.assertThat(ThreadCollators.get(collator))
+        .isSameAs(clone);
+    softly.assertThat(ThreadCollators.get((Collator) collator.clone()))
+        .as("Equal collators share the clone.")
+        .isSameAs(clone);
+    softly.assertThat(CompletableFuture.supplyAsync(() -> ThreadCollators.get(collator)).get())
+        .as("Another thread gets another clone.")
+        .isNotSameAs(clone)
+        .isEqualTo(collator);
+    softly.assertThat(clone.compare("\u00e4", "A"))
+        .isZero();
+  }
+
+}
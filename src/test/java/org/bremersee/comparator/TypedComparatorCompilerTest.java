@@ -0,0 +1,379 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Address;
+import org.bremersee.comparator.testmodel.Measurement;
+import org.bremersee.comparator.testmodel.Person;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * The typed comparator compiler tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class TypedComparatorCompilerTest {
+
+  /**
+   * Sort orders, that are used for the comparison.
+   *
+   * @return the sort orders
+   */
+  static Stream<String> sortOrders() {
+    return Stream.of(
+        "lastName",
+        "lastName,desc,false,true;firstName,asc,true,true",
+        "lastName,asc,false,false;firstName,desc,true,false;age,desc",
+        "score,asc,true,true;age",
+        "score,desc,true,false;address.city,asc,true,true",
+        "address.city,desc,false,false;address.zip,asc,true,true;lastName",
+        "address.zip,desc,true,true;score;age;firstName,asc,false");
+  }
+
+  /**
+   * Test that the typed comparator sorts like the reflective comparator.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("sortOrders")
+  void testSameOrder(String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    List<Person> expected = RandomPersons.create(2000, 42L);
+    List<Person> actual = new ArrayList<>(expected);
+    expected.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+    actual.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build(Person.class));
+    assertThat(actual)
+        .containsExactlyElementsOf(expected);
+  }
+
+  /**
+   * Sort orders of measurements, that are used for the comparison.
+   *
+   * @return the sort orders
+   */
+  static Stream<String> measurementSortOrders() {
+    return Stream.of(
+        "id",
+        "level,desc;id",
+        "grade;code,desc",
+        "code;total,desc",
+        "valid,desc;ratio",
+        "ratio,desc;value,asc",
+        "value,desc;id,desc",
+        "unit,asc,true,true;time,desc,true,false",
+        "time,asc,true,true;day,desc,true,true;uuid",
+        "uuid,desc,true,false;total");
+  }
+
+  /**
+   * Test that the typed comparator sorts primitive and temporal values like the reflective
+   * comparator.
+   *
+   * @param sortOrdersText the sort orders text
+   */
+  @ParameterizedTest
+  @MethodSource("measurementSortOrders")
+  void testSameOrderOfMeasurements(String sortOrdersText) {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText(sortOrdersText);
+    List<Measurement> expected = Measurement.create(2000, 11L);
+    List<Measurement> actual = new ArrayList<>(expected);
+    expected.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build());
+    actual.sort(ComparatorBuilder.newInstance().addAll(sortOrders).build(Measurement.class));
+    assertThat(actual)
+        .containsExactlyElementsOf(expected);
+  }
+
+  /**
+   * Test that primitive values are compared like the boxed values.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testComparePrimitive(SoftAssertions softly) {
+    List<Measurement> measurements = Measurement.create(50, 3L);
+    for (String field : List.of("id", "level", "grade", "code", "ratio", "value", "total")) {
+      for (boolean asc : new boolean[]{true, false}) {
+        ValueComparator valueComparator = new ValueComparator(field, asc, true, false);
+        Comparator<Measurement> comparator = TypedComparatorCompiler
+            .compile(Measurement.class, valueComparator)
+            .orElseThrow();
+        softly.assertThat(comparator.getClass().getSimpleName())
+            .endsWith("ValueComparator")
+            .isNotEqualTo("TypedValueComparator");
+        for (Measurement m1 : measurements) {
+          for (Measurement m2 : measurements) {
+            softly.assertThat(comparator.compare(m1, m2))
+                .as("%s %s", field, asc)
+                .isEqualTo(valueComparator.compare(m1, m2));
+          }
+        }
+      }
+    }
+    for (boolean asc : new boolean[]{true, false}) {
+      ValueComparator valueComparator = new ValueComparator("unit", asc, true, true);
+      Comparator<Measurement> comparator = TypedComparatorCompiler
+          .compile(Measurement.class, valueComparator)
+          .orElseThrow();
+      for (Measurement m1 : measurements) {
+        for (Measurement m2 : measurements) {
+          softly.assertThat(comparator.compare(m1, m2))
+              .as("unit %s", asc)
+              .isEqualTo(valueComparator.compare(m1, m2));
+        }
+      }
+    }
+    Comparator<Person> comparator = TypedComparatorCompiler
+        .compile(Person.class, new ValueComparator("address.zip", true, true, false))
+        .orElseThrow();
+    Person person = new Person("a", "b", 1, null, new Address("c", 1));
+    softly.assertThat(comparator.compare(new Person("a", "b", 1, null, null), person))
+        .isEqualTo(1);
+    softly.assertThat(comparator.compare(person, new Person("a", "b", 1, null, null)))
+        .isEqualTo(-1);
+    softly.assertThat(comparator.compare(
+            person, new Person("a", "b", 1, null, new Address("c", 0))))
+        .isEqualTo(1);
+  }
+
+  /**
+   * Test that the value comparators are compiled.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testCompile(SoftAssertions softly) {
+    softly.assertThat(ComparatorBuilder.newInstance()
+            .add("address.city", true, true, false)
+            .build(Person.class)
+            .toString())
+        .contains("TypedValueComparator");
+    softly.assertThat(ComparatorBuilder.newInstance()
+            .add("address.city", true, true, false, new CompiledValueExtractor())
+            .build(Person.class)
+            .toString())
+        .contains("TypedValueComparator");
+    softly.assertThat(ComparatorBuilder.newInstance()
+            .add("address.city", true, true, false, (obj, field) -> obj)
+            .build(Person.class)
+            .toString())
+        .as("Custom value extractors are not compiled.")
+        .doesNotContain("TypedValueComparator");
+    softly.assertThat(ComparatorBuilder.newInstance()
+            .add("unknown", true, true, false)
+            .build(Person.class)
+            .toString())
+        .as("Unknown fields are not compiled.")
+        .doesNotContain("TypedValueComparator");
+    softly.assertThat(TypedComparatorCompiler.compile(Person.class, Comparator.naturalOrder()))
+        .isEmpty();
+    softly.assertThat(TypedComparatorCompiler.compile(
+            null, new ValueComparator("lastName", true, true, false)))
+        .isEmpty();
+    softly.assertThat(ComparatorBuilder.newInstance().build(null).compare(1, 2))
+        .isLessThan(0);
+  }
+
+  /**
+   * Test that the compiled accessors are used for properties of an interface or an abstract type.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testCompileInterfaceType(SoftAssertions softly) {
+    List<Drawing> drawings = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      drawings.add(new Drawing(
+          i % 3 == 0 ? new Circle(i % 7) : i % 3 == 1 ? new Square(i % 5) : new Polygon(i % 4),
+          i % 2 == 0 ? new Triangle(i % 6) : null));
+    }
+    for (String field : List.of("shape.area", "shape.name", "outline.area", "outline.edges")) {
+      ValueComparator valueComparator = new ValueComparator(field, true, true, false);
+      TypedComparatorCompiler.CompiledPath path = TypedComparatorCompiler
+          .compilePath(Drawing.class, valueComparator)
+          .orElseThrow();
+      Comparator<Drawing> comparator = TypedComparatorCompiler
+          .compile(Drawing.class, valueComparator)
+          .orElseThrow();
+      for (Drawing d1 : drawings) {
+        for (Drawing d2 : drawings) {
+          softly.assertThat(comparator.compare(d1, d2))
+              .as("%s", field)
+              .isEqualTo(valueComparator.compare(d1, d2));
+        }
+      }
+      softly.assertThat(path.isCompiled(new Drawing(new Circle(1), new Triangle(1))))
+          .as("%s of a circle and a triangle", field)
+          .isTrue();
+      softly.assertThat(path.isCompiled(new Drawing(new Square(1), new Triangle(1))))
+          .as("%s of a square and a triangle", field)
+          .isTrue();
+    }
+    TypedComparatorCompiler.CompiledPath path = TypedComparatorCompiler
+        .compilePath(Drawing.class, new ValueComparator("shape.area", true, true, false))
+        .orElseThrow();
+    softly.assertThat(path.isCompiled(new Drawing(new Polygon(1), null)))
+        .as("The field 'area' of a polygon is read by the value extractor.")
+        .isFalse();
+  }
+
+  /**
+   * The shape.
+   */
+  public interface Shape {
+
+    /**
+     * Gets area.
+     *
+     * @return the area
+     */
+    double getArea();
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    String getName();
+  }
+
+  /**
+   * The circle.
+   */
+  @AllArgsConstructor
+  static class Circle implements Shape {
+
+    private final int radius;
+
+    @Override
+    public double getArea() {
+      return Math.PI * radius * radius;
+    }
+
+    @Override
+    public String getName() {
+      return "circle";
+    }
+  }
+
+  /**
+   * The square.
+   */
+  @AllArgsConstructor
+  static class Square implements Shape {
+
+    private final int side;
+
+    @Override
+    public double getArea() {
+      return side * side;
+    }
+
+    @Override
+    public String getName() {
+      return "square";
+    }
+  }
+
+  /**
+   * The polygon, that has a field with the name of the getter.
+   */
+  @AllArgsConstructor
+  static class Polygon implements Shape {
+
+    private final double area;
+
+    @Override
+    public double getArea() {
+      return area;
+    }
+
+    @Override
+    public String getName() {
+      return "polygon";
+    }
+  }
+
+  /**
+   * The outline.
+   */
+  @Getter
+  @AllArgsConstructor
+  abstract static class Outline {
+
+    private final int edges;
+
+    /**
+     * Gets area.
+     *
+     * @return the area
+     */
+    abstract long getArea();
+  }
+
+  /**
+   * The triangle.
+   */
+  static class Triangle extends Outline {
+
+    private final int size;
+
+    /**
+     * Instantiates a new triangle.
+     *
+     * @param size the size
+     */
+    Triangle(int size) {
+      super(3);
+      this.size = size;
+    }
+
+    @Override
+    long getArea() {
+      return (long) size * size / 2;
+    }
+  }
+
+  /**
+   * The drawing.
+   */
+  @Getter
+  @AllArgsConstructor
+  static class Drawing {
+
+    private final Shape shape;
+
+    private final Outline outline;
+  }
+
+}
@@ -26,7 +26,10 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Locale;
 import org.bremersee.comparator.model.SortOrder;
+import org.bremersee.comparator.model.SortOrder.CollationStrength;
+import org.bremersee.comparator.model.SortOrder.Direction;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -389,6 +392,31 @@ class ValueComparatorTest {
     verify(valueExtractor, times(1)).findValue(anyInt(), anyString());
   }
 
+  /**
+   * Test with collator.
+   */
+  @Test
+  void testWithCollator() {
+    SortOrder sortOrder = SortOrder.by("someField").with(Locale.GERMANY);
+    ValueComparator comparator = new ValueComparator(sortOrder, (obj, field) -> obj);
+    assertThat(comparator.compare("\u00e4", "b"))
+        .isNegative();
+    assertThat(comparator.compare("\u00c4", "a"))
+        .isPositive();
+    assertThat(new ValueComparator(sortOrder.with(Direction.DESC), (obj, field) -> obj)
+        .compare("\u00e4", "b"))
+        .isPositive();
+    assertThat(new ValueComparator(SortOrder.by(null).with(Locale.GERMANY)
+        .with(CollationStrength.PRIMARY))
+        .compare("\u00e4", "A"))
+        .as("The single argument constructor uses the collator of the sort order.")
+        .isZero();
+    assertThat(new ValueComparator("someField", true, false, false, null, (obj, field) -> obj)
+        .compare("\u00e4", "b"))
+        .as("Without collator '\u00e4' is greater than 'b'.")
+        .isPositive();
+  }
+
   /**
    * Test to string.
    */
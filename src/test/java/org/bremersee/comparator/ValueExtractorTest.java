@@ -61,4 +61,19 @@ public class ValueExtractorTest {
         .containsExactlyInAnyOrder("abc", "getAbc", "isAbc");
   }
 
-}
\ No newline at end of file
+  /**
+   * Test is thread safe.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void isThreadSafe(SoftAssertions softly) {
+    softly.assertThat(extractor.isThreadSafe())
+        .isFalse();
+    softly.assertThat(new DefaultValueExtractor().isThreadSafe())
+        .isTrue();
+    softly.assertThat(new CompiledValueExtractor().isThreadSafe())
+        .isTrue();
+  }
+
+}
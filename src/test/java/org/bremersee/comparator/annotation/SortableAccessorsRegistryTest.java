@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.annotation;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.testmodel.Person;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The sortable accessors registry tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class SortableAccessorsRegistryTest {
+
+  /**
+   * Test get accessors class name.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testGetAccessorsClassName(SoftAssertions softly) {
+    softly.assertThat(SortableAccessorsRegistry.getAccessorsClassName("org.example.Person"))
+        .isEqualTo("org.example.PersonSortableAccessors");
+    softly.assertThat(SortableAccessorsRegistry.getAccessorsClassName("org.example.Outer$Inner"))
+        .isEqualTo("org.example.Outer_InnerSortableAccessors");
+    softly.assertThat(SortableAccessorsRegistry.getAccessorsClassName("Person"))
+        .isEqualTo("PersonSortableAccessors");
+  }
+
+  /**
+   * Test find.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testFind(SoftAssertions softly) {
+    softly.assertThat(SortableAccessorsRegistry.find(null))
+        .isEmpty();
+    softly.assertThat(SortableAccessorsRegistry.find(Person.class))
+        .as("Person is not annotated with @Sortable.")
+        .isEmpty();
+    softly.assertThat(SortableAccessorsRegistry.find(Missing.class))
+        .as("The accessors of Missing were not generated.")
+        .isEmpty();
+  }
+
+  /**
+   * A type without generated accessors.
+   */
+  @Sortable
+  static class Missing {
+
+  }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+import org.bremersee.comparator.model.SortOrder;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.model.SortOrdersTextParser;
+import org.bremersee.comparator.model.SortOrdersTextProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the single pass {@link SortOrdersTextParser} with the former parser, that split the
+ * text with a {@link StringTokenizer} and created a trimmed substring of every argument.
+ *
+ * <p>Run it with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.bremersee.comparator.benchmark.SortOrdersTextParserBenchmark} or from the
+ * IDE. Add {@code -prof gc} to the options to see the allocation rate.
+ *
+ * @author Christian Bremer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SortOrdersTextParserBenchmark {
+
+  @Param({
+      "lastName",
+      "lastName,asc,true;firstName,asc,true;age,desc",
+      "address.city,desc,false,true;lastName,asc,true,false,de-DE,primary;score,desc;age"
+  })
+  private String text;
+
+  private final SortOrdersTextParser parser = SortOrdersTextParser.defaults();
+
+  private final SortOrdersTextProperties properties = SortOrdersTextProperties.defaults();
+
+  /**
+   * Parse with the single pass parser.
+   *
+   * @return the sort orders
+   */
+  @Benchmark
+  public SortOrders singlePassParser() {
+    return parser.parseSortOrders(text);
+  }
+
+  /**
+   * Parse with the tokenizer and substrings.
+   *
+   * @return the sort orders
+   */
+  @Benchmark
+  public SortOrders tokenizerParser() {
+    List<SortOrder> sortOrders = new ArrayList<>();
+    StringTokenizer tokenizer = new StringTokenizer(text, properties.getSortOrderSeparator());
+    while (tokenizer.hasMoreTokens()) {
+      sortOrders.add(parseSortOrder(tokenizer.nextToken(), properties));
+    }
+    return new SortOrders(sortOrders);
+  }
+
+  private static SortOrder parseSortOrder(String text, SortOrdersTextProperties props) {
+    String[] args = {null, null, null, null, null, null};
+    String separator = props.getSortOrderArgsSeparator();
+    int from = 0;
+    int arg = 0;
+    int index = text.indexOf(separator);
+    while (index >= 0 && arg < 5) {
+      args[arg++] = text.substring(from, index).trim();
+      from = index + separator.length();
+      index = text.indexOf(separator, from);
+    }
+    args[arg] = text.substring(from).trim();
+    String field = args[0].isEmpty() ? null : args[0];
+    return new SortOrder(
+        field,
+        props.isAsc(args[1]),
+        props.isCaseIgnored(args[2]),
+        props.isNullFirst(args[3]),
+        args[4],
+        props.getStrength(args[5]));
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the arguments
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(SortOrdersTextParserBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+}
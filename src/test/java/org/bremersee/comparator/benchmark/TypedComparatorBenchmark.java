@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bremersee.comparator.CompiledValueExtractor;
+import org.bremersee.comparator.ComparatorBuilder;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Person;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the reflective comparator chain with the chain of a compiled value extractor and with
+ * the comparator, that is specialized for the element type.
+ *
+ * <p>Run it with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.bremersee.comparator.benchmark.TypedComparatorBenchmark} or from the IDE.
+ *
+ * @author Christian Bremer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypedComparatorBenchmark {
+
+  @Param({"10000", "100000"})
+  private int size;
+
+  @Param({"lastName,asc,true;firstName,asc,true;age,desc", "address.city;score,desc;age"})
+  private String sortOrders;
+
+  private List<Person> persons;
+
+  private Comparator<Person> reflectiveComparator;
+
+  private Comparator<Person> compiledExtractorComparator;
+
+  private Comparator<Person> typedComparator;
+
+  /**
+   * Creates the persons and the comparators.
+   */
+  @Setup
+  public void setup() {
+    persons = RandomPersons.create(size, 4711L);
+    SortOrders orders = SortOrders.fromSortOrdersText(sortOrders);
+    reflectiveComparator = ComparatorBuilder.newInstance()
+        .addAll(orders)
+        .build();
+    compiledExtractorComparator = ComparatorBuilder.newInstance()
+        .addAll(orders, new CompiledValueExtractor())
+        .build();
+    typedComparator = ComparatorBuilder.newInstance()
+        .addAll(orders)
+        .build(Person.class);
+  }
+
+  /**
+   * Sort with the reflective comparator chain.
+   *
+   * @return the sorted list
+   */
+  @Benchmark
+  public List<Person> reflectiveChain() {
+    List<Person> list = new ArrayList<>(persons);
+    list.sort(reflectiveComparator);
+    return list;
+  }
+
+  /**
+   * Sort with the comparator chain and a compiled value extractor.
+   *
+   * @return the sorted list
+   */
+  @Benchmark
+  public List<Person> compiledExtractorChain() {
+    List<Person> list = new ArrayList<>(persons);
+    list.sort(compiledExtractorComparator);
+    return list;
+  }
+
+  /**
+   * Sort with the comparator, that is specialized for the element type.
+   *
+   * @return the sorted list
+   */
+  @Benchmark
+  public List<Person> typedComparator() {
+    List<Person> list = new ArrayList<>(persons);
+    list.sort(typedComparator);
+    return list;
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the arguments
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TypedComparatorBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+}
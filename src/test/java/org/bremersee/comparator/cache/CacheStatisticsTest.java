@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.cache;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The cache statistics tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class CacheStatisticsTest {
+
+  /**
+   * Test hit rate.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testHitRate(SoftAssertions softly) {
+    softly.assertThat(new CacheStatistics(0L, 0L, 0L, 0).getHitRate()).isEqualTo(1.0);
+    softly.assertThat(new CacheStatistics(3L, 1L, 0L, 1).getHitRate()).isEqualTo(0.75);
+    softly.assertThat(new CacheStatistics(3L, 1L, 0L, 1).getRequestCount()).isEqualTo(4L);
+    softly.assertThat(new CacheStatistics(3L, 1L, 2L, 1).toString())
+        .contains("hitCount=3", "missCount=1", "evictionCount=2", "size=1");
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.ComparatorBuilder;
+import org.bremersee.comparator.DefaultValueExtractor;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Person;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The comparator cache tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class ComparatorCacheTest {
+
+  /**
+   * Test get comparator.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testGetComparator(SoftAssertions softly) {
+    ComparatorCache cache = new ComparatorCache(2);
+    Comparator<Person> comparator = cache.getComparator(
+        SortOrders.fromSortOrdersText("lastName;address.city,desc"), Person.class);
+    softly.assertThat(cache.getComparator(
+            SortOrders.fromSortOrdersText("lastName;address.city,desc"), Person.class))
+        .isSameAs(comparator);
+    softly.assertThat(cache.getComparator(
+            SortOrders.fromSortOrdersText("lastName;address.city,desc"), null))
+        .isNotSameAs(comparator);
+    softly.assertThat(cache.getComparator(
+            SortOrders.fromSortOrdersText("lastName;address.city,desc"), Person.class,
+            new DefaultValueExtractor(false)))
+        .isNotSameAs(comparator);
+    softly.assertThat(cache.getStatistics())
+        .isEqualTo(new CacheStatistics(1L, 3L, 1L, 2));
+
+    List<Person> persons = RandomPersons.create(300, 31L);
+    List<Person> expected = new ArrayList<>(persons);
+    expected.sort(ComparatorBuilder.newInstance()
+        .addAll(SortOrders.fromSortOrdersText("lastName;address.city,desc"))
+        .build());
+    persons.sort(comparator);
+    softly.assertThat(persons).containsExactlyElementsOf(expected);
+
+    cache.clear();
+    softly.assertThat(cache.getStatistics().getSize()).isZero();
+    softly.assertThat(new ComparatorCache().getComparator(null, Integer.class).compare(1, 2))
+        .isLessThan(0);
+  }
+
+}
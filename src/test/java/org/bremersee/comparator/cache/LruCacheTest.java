@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.cache;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The lru cache tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class LruCacheTest {
+
+  /**
+   * Test eviction of the least recently used entry.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testEviction(SoftAssertions softly) {
+    LruCache<String, String> cache = new LruCache<>(2);
+    softly.assertThat(cache.get("a", String::toUpperCase)).isEqualTo("A");
+    softly.assertThat(cache.get("b", String::toUpperCase)).isEqualTo("B");
+    softly.assertThat(cache.get("a", key -> "not computed")).isEqualTo("A");
+    softly.assertThat(cache.get("c", String::toUpperCase)).isEqualTo("C");
+    softly.assertThat(cache.getIfPresent("b"))
+        .as("b is the least recently used entry.")
+        .isNull();
+    softly.assertThat(cache.getIfPresent("a")).isEqualTo("A");
+    softly.assertThat(cache.size()).isEqualTo(2);
+    softly.assertThat(cache.getStatistics())
+        .isEqualTo(new CacheStatistics(1L, 3L, 1L, 2));
+
+    softly.assertThat(cache.get("d", key -> null)).isNull();
+    softly.assertThat(cache.size()).isEqualTo(2);
+
+    softly.assertThat(cache.getIfPresent("c")).isEqualTo("C");
+    softly.assertThat(cache.get("e", String::toUpperCase)).isEqualTo("E");
+    softly.assertThat(cache.getIfPresent("a"))
+        .as("a is the least recently used entry, after c was read.")
+        .isNull();
+    softly.assertThat(cache.getIfPresent("c")).isEqualTo("C");
+
+    cache.clear();
+    softly.assertThat(cache.size()).isZero();
+    softly.assertThat(cache.getStatistics().getMissCount()).isEqualTo(5L);
+    softly.assertThat(cache.toString()).contains("maximumSize=2");
+  }
+
+  /**
+   * Test concurrent access.
+   *
+   * @param softly the soft assertions
+   * @throws Exception if a task fails
+   */
+  @Test
+  void testConcurrentAccess(SoftAssertions softly) throws Exception {
+    LruCache<Integer, String> cache = new LruCache<>(16);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10000; i++) {
+            String value = cache.get(i % 32, String::valueOf);
+            if (!value.equals(String.valueOf(i % 32))) {
+              throw new IllegalStateException("Wrong value " + value);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    softly.assertThat(cache.size()).isEqualTo(16);
+    softly.assertThat(cache.getStatistics().getRequestCount()).isEqualTo(40000L);
+  }
+
+  /**
+   * Test that only keys, that were requested before, are cached.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testAdmittingRequestedKeys(SoftAssertions softly) {
+    LruCache<String, String> cache = new LruCache<>(2, true);
+    softly.assertThat(cache.get("a", String::toUpperCase)).isEqualTo("A");
+    softly.assertThat(cache.getIfPresent("a")).isNull();
+    softly.assertThat(cache.get("a", String::toUpperCase)).isEqualTo("A");
+    softly.assertThat(cache.getIfPresent("a")).isEqualTo("A");
+    softly.assertThat(cache.get("b", String::toUpperCase)).isEqualTo("B");
+    softly.assertThat(cache.get("c", String::toUpperCase)).isEqualTo("C");
+    softly.assertThat(cache.size()).isEqualTo(1);
+    softly.assertThat(cache.getStatistics())
+        .isEqualTo(new CacheStatistics(0L, 4L, 0L, 1));
+  }
+
+  /**
+   * Test illegal maximum size.
+   */
+  @Test
+  void testIllegalMaximumSize() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new LruCache<>(0));
+  }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.external;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.ComparatorBuilder;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Address;
+import org.bremersee.comparator.testmodel.Person;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The external sorter tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class ExternalSorterTest {
+
+  private static final SortOrders SORT_ORDERS = SortOrders
+      .fromSortOrdersText("lastName,desc,true,false;address.city;score,asc,true,true");
+
+  @TempDir
+  Path tempDir;
+
+  /**
+   * Test sort with several merge passes.
+   *
+   * @param softly the soft assertions
+   * @throws IOException if sorting fails
+   */
+  @Test
+  void testSortWithSeveralMergePasses(SoftAssertions softly) throws IOException {
+    List<Person> persons = RandomPersons.create(3000, 21L).stream()
+        .map(PersonSerializer::withoutSubclass)
+        .collect(Collectors.toList());
+    List<Person> expected = new ArrayList<>(persons);
+    expected.sort(ComparatorBuilder.newInstance().addAll(SORT_ORDERS).build());
+
+    ExternalSorter<Person> sorter = new ExternalSorter<>(
+        SORT_ORDERS,
+        new PersonSerializer(),
+        ExternalSortProperties.builder()
+            .runSize(100)
+            .mergeFanIn(3)
+            .bufferSize(512)
+            .tempDirectory(tempDir)
+            .build());
+    List<Person> actual = new ArrayList<>();
+    softly.assertThat(sorter.sort(persons.iterator(), actual::add))
+        .isEqualTo(3000L);
+    softly.assertThat(actual)
+        .containsExactlyElementsOf(expected);
+    try (Stream<Path> files = Files.list(tempDir)) {
+      softly.assertThat(files)
+          .as("Temporary files are deleted.")
+          .isEmpty();
+    }
+  }
+
+  /**
+   * Test that a run ends, when the memory budget is reached.
+   *
+   * @param softly the soft assertions
+   * @throws IOException if sorting fails
+   */
+  @Test
+  void testMemoryBudget(SoftAssertions softly) throws IOException {
+    List<Integer> runSizes = new ArrayList<>();
+    RecordSerializer<Integer> serializer = new RecordSerializer<>() {
+      @Override
+      public void write(Integer record, DataOutput out) throws IOException {
+        out.writeInt(record);
+      }
+
+      @Override
+      public Integer read(DataInput in) throws IOException {
+        return in.readInt();
+      }
+
+      @Override
+      public long estimateSize(Integer record) {
+        return 1000L;
+      }
+    };
+    ExternalSorter<Integer> sorter = new ExternalSorter<>(
+        SortOrders.by(),
+        serializer,
+        ExternalSortProperties.builder()
+            .memoryBudget(10_000L)
+            .tempDirectory(tempDir)
+            .build());
+    List<Integer> source = new ArrayList<>();
+    for (int i = 0; i < 95; i++) {
+      source.add((i * 37) % 95);
+    }
+    List<Integer> actual = new ArrayList<>();
+    Iterator<Integer> iterator = source.iterator();
+    sorter.sort(new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Integer next() {
+        try (Stream<Path> files = Files.list(tempDir)) {
+          runSizes.add((int) files.count());
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+        return iterator.next();
+      }
+    }, actual::add);
+    softly.assertThat(actual)
+        .isSorted()
+        .hasSize(95);
+    softly.assertThat(runSizes.get(94))
+        .as("Nine runs are written, before the last record is read.")
+        .isEqualTo(9);
+  }
+
+  /**
+   * Test sort in memory.
+   *
+   * @param softly the soft assertions
+   * @throws IOException if sorting fails
+   */
+  @Test
+  void testSortInMemory(SoftAssertions softly) throws IOException {
+    ExternalSorter<String> sorter = new ExternalSorter<>(
+        String.CASE_INSENSITIVE_ORDER,
+        new RecordSerializer<>() {
+          @Override
+          public void write(String record, DataOutput out) {
+            throw new UnsupportedOperationException();
+          }
+
+          @Override
+          public String read(DataInput in) {
+            throw new UnsupportedOperationException();
+          }
+        },
+        null);
+    List<String> actual = new ArrayList<>();
+    softly.assertThat(sorter.sort(List.of("b", "C", "a").iterator(), actual::add))
+        .isEqualTo(3L);
+    softly.assertThat(actual)
+        .containsExactly("a", "b", "C");
+    softly.assertThat(sorter.toString())
+        .contains("ExternalSorter");
+  }
+
+  /**
+   * Test invalid properties.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testInvalidProperties(SoftAssertions softly) {
+    softly.assertThatIllegalStateException()
+        .isThrownBy(() -> ExternalSortProperties.builder().mergeFanIn(1).build());
+    softly.assertThatIllegalStateException()
+        .isThrownBy(() -> ExternalSortProperties.builder().runSize(0).build());
+  }
+
+  /**
+   * The person serializer.
+   */
+  static class PersonSerializer implements RecordSerializer<Person> {
+
+    /**
+     * Copies the given person into a person (employees are not serialized).
+     *
+     * @param person the person
+     * @return the person
+     */
+    static Person withoutSubclass(Person person) {
+      return new Person(person.getLastName(), person.getFirstName(), person.getAge(),
+          person.getScore(), person.getAddress());
+    }
+
+    @Override
+    public void write(Person record, DataOutput out) throws IOException {
+      writeString(record.getLastName(), out);
+      writeString(record.getFirstName(), out);
+      out.writeInt(record.getAge());
+      out.writeBoolean(record.getScore() != null);
+      if (record.getScore() != null) {
+        out.writeDouble(record.getScore());
+      }
+      out.writeBoolean(record.getAddress() != null);
+      if (record.getAddress() != null) {
+        writeString(record.getAddress().getCity(), out);
+        out.writeInt(record.getAddress().getZip());
+      }
+    }
+
+    @Override
+    public Person read(DataInput in) throws IOException {
+      String lastName = readString(in);
+      String firstName = readString(in);
+      int age = in.readInt();
+      Double score = in.readBoolean() ? in.readDouble() : null;
+      Address address = in.readBoolean() ? new Address(readString(in), in.readInt()) : null;
+      return new Person(lastName, firstName, age, score, address);
+    }
+
+    private static void writeString(String value, DataOutput out) throws IOException {
+      out.writeBoolean(value != null);
+      if (value != null) {
+        out.writeUTF(value);
+      }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+      return in.readBoolean() ? in.readUTF() : null;
+    }
+  }
+
+}
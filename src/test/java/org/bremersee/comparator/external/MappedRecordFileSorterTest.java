@@ -0,0 +1,311 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.external;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.ComparatorException;
+import org.bremersee.comparator.external.FixedWidthRecordLayout.FieldType;
+import org.bremersee.comparator.model.SortOrders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The mapped record file sorter tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class MappedRecordFileSorterTest {
+
+  private static final int RECORD_SIZE = 30;
+
+  @TempDir
+  Path tempDir;
+
+  private static FixedWidthRecordLayout layout(ByteOrder byteOrder) {
+    return FixedWidthRecordLayout.builder(RECORD_SIZE)
+        .byteOrder(byteOrder)
+        .field("id", 0, FieldType.LONG)
+        .field("score", 8, FieldType.INT)
+        .field("value", 12, FieldType.DOUBLE)
+        .field("flag", 20, FieldType.SHORT)
+        .asciiField("name", 22, 8)
+        .build();
+  }
+
+  private static List<Row> createRows(int size) {
+    Random random = new Random(13L);
+    String[] names = {"anna", "Anna", "bob", "Bob", "carl", "zoe", "Zoe", "ann"};
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      rows.add(new Row(
+          i,
+          random.nextInt(21) - 10,
+          random.nextBoolean() ? random.nextDouble() * 200.0 - 100.0 : (double) random.nextInt(3),
+          (short) (random.nextInt(5) - 2),
+          names[random.nextInt(names.length)]));
+    }
+    return rows;
+  }
+
+  private static void write(Path file, List<Row> rows, ByteOrder byteOrder) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(rows.size() * RECORD_SIZE).order(byteOrder);
+    for (Row row : rows) {
+      buffer.putLong(row.id).putInt(row.score).putDouble(row.value).putShort(row.flag)
+          .put(Arrays.copyOf(row.name.getBytes(StandardCharsets.US_ASCII), 8));
+    }
+    Files.write(file, buffer.array());
+  }
+
+  private static List<Row> read(Path file, ByteOrder byteOrder) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(byteOrder);
+    List<Row> rows = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      long id = buffer.getLong();
+      int score = buffer.getInt();
+      double value = buffer.getDouble();
+      short flag = buffer.getShort();
+      byte[] name = new byte[8];
+      buffer.get(name);
+      rows.add(new Row(id, score, value, flag,
+          new String(name, StandardCharsets.US_ASCII).trim()));
+    }
+    return rows;
+  }
+
+  /**
+   * Test sort in place.
+   *
+   * @param softly the soft assertions
+   * @throws IOException if sorting fails
+   */
+  @Test
+  void testSortInPlace(SoftAssertions softly) throws IOException {
+    Path file = tempDir.resolve("records.bin");
+    List<Row> rows = createRows(2000);
+    write(file, rows, ByteOrder.BIG_ENDIAN);
+
+    new MappedRecordFileSorter(
+        layout(ByteOrder.BIG_ENDIAN),
+        SortOrders.fromSortOrdersText("score,desc;name,asc,true;value"))
+        .sort(file);
+
+    List<Row> expected = new ArrayList<>(rows);
+    expected.sort(Comparator.comparingInt((Row row) -> row.score).reversed()
+        .thenComparing(row -> row.name, String.CASE_INSENSITIVE_ORDER)
+        .thenComparingDouble(row -> row.value));
+    softly.assertThat(read(file, ByteOrder.BIG_ENDIAN))
+        .containsExactlyElementsOf(expected);
+
+    Collections.shuffle(rows, new Random(7L));
+    write(file, rows, ByteOrder.BIG_ENDIAN);
+    new MappedRecordFileSorter(
+        layout(ByteOrder.BIG_ENDIAN),
+        SortOrders.fromSortOrdersText("score,desc;name,asc,true;value;id"))
+        .sort(file, tempDir.resolve(".").resolve("records.bin"));
+    expected.sort(Comparator.comparingInt((Row row) -> row.score).reversed()
+        .thenComparing(row -> row.name, String.CASE_INSENSITIVE_ORDER)
+        .thenComparingDouble(row -> row.value)
+        .thenComparingLong(row -> row.id));
+    softly.assertThat(read(file, ByteOrder.BIG_ENDIAN))
+        .as("The same file with another path is sorted in place.")
+        .containsExactlyElementsOf(expected);
+    try (var files = Files.list(tempDir)) {
+      softly.assertThat(files)
+          .as("No temporary file is used.")
+          .containsExactly(file);
+    }
+  }
+
+  /**
+   * Test that sorting in place keeps the permissions of the file.
+   *
+   * @param softly the soft assertions
+   * @throws IOException if sorting fails
+   */
+  @Test
+  void testSortInPlaceKeepsPermissions(SoftAssertions softly) throws IOException {
+    assumeTrue(tempDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+    Path file = tempDir.resolve("permissions.bin");
+    write(file, createRows(100), ByteOrder.BIG_ENDIAN);
+    Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+    Files.setPosixFilePermissions(file, permissions);
+    Path target = tempDir.resolve("target.bin");
+    Files.createFile(target);
+    Files.setPosixFilePermissions(target, PosixFilePermissions.fromString("rw-rw-r--"));
+
+    MappedRecordFileSorter sorter = new MappedRecordFileSorter(
+        layout(ByteOrder.BIG_ENDIAN),
+        SortOrders.fromSortOrdersText("score"));
+    sorter.sort(file);
+    softly.assertThat(Files.getPosixFilePermissions(file))
+        .containsExactlyInAnyOrderElementsOf(permissions);
+
+    sorter.sort(file, target);
+    softly.assertThat(Files.getPosixFilePermissions(target))
+        .as("The permissions of an existing target file are kept.")
+        .containsExactlyInAnyOrderElementsOf(PosixFilePermissions.fromString("rw-rw-r--"));
+  }
+
+  /**
+   * Test sort into target file with little endian.
+   *
+   * @param softly the soft assertions
+   * @throws IOException if sorting fails
+   */
+  @Test
+  void testSortIntoTarget(SoftAssertions softly) throws IOException {
+    Path source = tempDir.resolve("source.bin");
+    Path target = tempDir.resolve("target.bin");
+    List<Row> rows = createRows(500);
+    write(source, rows, ByteOrder.LITTLE_ENDIAN);
+
+    new MappedRecordFileSorter(
+        layout(ByteOrder.LITTLE_ENDIAN),
+        SortOrders.fromSortOrdersText("flag;name,desc,false;id,desc"))
+        .sort(source, target);
+
+    List<Row> expected = new ArrayList<>(rows);
+    expected.sort(Comparator.comparingInt((Row row) -> row.flag)
+        .thenComparing(row -> row.name, Comparator.reverseOrder())
+        .thenComparing(Comparator.comparingLong((Row row) -> row.id).reversed()));
+    softly.assertThat(read(target, ByteOrder.LITTLE_ENDIAN))
+        .containsExactlyElementsOf(expected);
+    softly.assertThat(read(source, ByteOrder.LITTLE_ENDIAN))
+        .containsExactlyElementsOf(rows);
+  }
+
+  /**
+   * Test that the sort is stable.
+   *
+   * @param softly the soft assertions
+   * @throws IOException if sorting fails
+   */
+  @Test
+  void testStableSort(SoftAssertions softly) throws IOException {
+    Path file = tempDir.resolve("records.bin");
+    List<Row> rows = createRows(1000);
+    write(file, rows, ByteOrder.BIG_ENDIAN);
+
+    new MappedRecordFileSorter(
+        layout(ByteOrder.BIG_ENDIAN),
+        SortOrders.fromSortOrdersText("flag,desc"))
+        .sort(file);
+
+    List<Row> expected = new ArrayList<>(rows);
+    expected.sort(Comparator.comparingInt((Row row) -> row.flag).reversed());
+    softly.assertThat(read(file, ByteOrder.BIG_ENDIAN))
+        .containsExactlyElementsOf(expected);
+  }
+
+  /**
+   * Test empty file.
+   *
+   * @param softly the soft assertions
+   * @throws IOException if sorting fails
+   */
+  @Test
+  void testEmptyFile(SoftAssertions softly) throws IOException {
+    Path file = Files.createFile(tempDir.resolve("empty.bin"));
+    new MappedRecordFileSorter(layout(ByteOrder.BIG_ENDIAN), SortOrders.fromSortOrdersText("id"))
+        .sort(file);
+    softly.assertThat(file).isEmptyFile();
+  }
+
+  /**
+   * Test illegal arguments.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  @Test
+  void testIllegalArguments() throws IOException {
+    assertThatExceptionOfType(ComparatorException.class)
+        .isThrownBy(() -> new MappedRecordFileSorter(
+            layout(ByteOrder.BIG_ENDIAN), SortOrders.fromSortOrdersText("unknown")));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> FixedWidthRecordLayout.builder(4).field("id", 0, FieldType.LONG));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> FixedWidthRecordLayout.builder(4).field("name", 0, FieldType.ASCII));
+
+    Path file = tempDir.resolve("broken.bin");
+    Files.write(file, new byte[RECORD_SIZE + 1]);
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> new MappedRecordFileSorter(
+            layout(ByteOrder.BIG_ENDIAN), SortOrders.fromSortOrdersText("id")).sort(file));
+    try (var files = Files.list(tempDir)) {
+      assertThat(files).containsExactly(file);
+    }
+  }
+
+  private static class Row {
+
+    private final long id;
+
+    private final int score;
+
+    private final double value;
+
+    private final short flag;
+
+    private final String name;
+
+    Row(long id, int score, double value, short flag, String name) {
+      this.id = id;
+      this.score = score;
+      this.value = value;
+      this.flag = flag;
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Row && ((Row) obj).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+      return id + ":" + score + ":" + value + ":" + flag + ":" + name;
+    }
+  }
+
+}
@@ -21,12 +21,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.text.Collator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.bremersee.comparator.model.SortOrder.CaseHandling;
+import org.bremersee.comparator.model.SortOrder.CollationStrength;
 import org.bremersee.comparator.model.SortOrder.Direction;
 import org.bremersee.comparator.model.SortOrder.NullHandling;
 import org.junit.jupiter.api.BeforeAll;
@@ -240,4 +245,115 @@ class SortOrderTest {
         .isEqualTo(new SortOrder("home", false, false, true));
   }
 
+  /**
+   * Test sort order with collator.
+   *
+   * @param softly the soft assertions
+   * @throws Exception the exception
+   */
+  @Test
+  void testCollator(SoftAssertions softly) throws Exception {
+    SortOrder sortOrder = SortOrder.by("name")
+        .with(Locale.GERMANY)
+        .with(CollationStrength.PRIMARY);
+    softly.assertThat(sortOrder)
+        .isEqualTo(new SortOrder("name", true, true, false, "de-DE", CollationStrength.PRIMARY));
+    softly.assertThat(sortOrder.with(Direction.DESC).getLocale())
+        .isEqualTo("de-DE");
+    softly.assertThat(sortOrder.with(NullHandling.NULLS_FIRST).getStrength())
+        .isEqualTo(CollationStrength.PRIMARY);
+    softly.assertThat(new SortOrder("name", true, true, false, " ", null).getLocale())
+        .isNull();
+
+    softly.assertThat(sortOrder.getSortOrderText())
+        .isEqualTo("name,asc,true,false,de-DE,primary");
+    softly.assertThat(sortOrder.with((CollationStrength) null).getSortOrderText())
+        .isEqualTo("name,asc,true,false,de-DE");
+    softly.assertThat(SortOrder.fromSortOrderText("name,asc,true,false,de-DE,Primary"))
+        .isEqualTo(sortOrder);
+    softly.assertThat(SortOrder.fromSortOrderText("name,asc,true,false,,tertiary"))
+        .isEqualTo(new SortOrder("name", true, true, false, null, CollationStrength.TERTIARY));
+    SortOrdersTextProperties properties = SortOrdersTextProperties.builder()
+        .sortOrderArgsSeparator("::")
+        .build();
+    softly.assertThat(SortOrder.fromSortOrderText(
+            sortOrder.getSortOrderText(properties), properties))
+        .isEqualTo(sortOrder);
+
+    Marshaller marshaller = jaxbContext.createMarshaller();
+    StringWriter sw = new StringWriter();
+    marshaller.marshal(sortOrder, sw);
+    softly.assertThat(jaxbContext.createUnmarshaller().unmarshal(new StringReader(sw.toString())))
+        .isEqualTo(sortOrder);
+
+    ObjectMapper om = new ObjectMapper();
+    softly.assertThat(om.readValue(om.writeValueAsString(sortOrder), SortOrder.class))
+        .isEqualTo(sortOrder);
+    softly.assertThat(om.writeValueAsString(SortOrder.by("name")))
+        .doesNotContain("locale", "strength");
+
+    Collator collator = sortOrder.createCollator();
+    softly.assertThat(collator.getStrength())
+        .isEqualTo(Collator.PRIMARY);
+    softly.assertThat(collator.compare("\u00e4", "A"))
+        .isZero();
+    softly.assertThat(sortOrder.with((CollationStrength) null).createCollator().getStrength())
+        .isEqualTo(Collator.SECONDARY);
+    softly.assertThat(sortOrder.with((CollationStrength) null).with(CaseHandling.SENSITIVE)
+            .createCollator().getStrength())
+        .isEqualTo(Collator.TERTIARY);
+    softly.assertThat(SortOrder.by("name").createCollator())
+        .isNull();
+  }
+
+  /**
+   * Test canonical sort orders.
+   *
+   * @param softly the soft assertions
+   * @throws Exception the exception
+   */
+  @Test
+  void testOf(SoftAssertions softly) throws Exception {
+    SortOrder sortOrder = SortOrder.of("canonical", false, true, false);
+    softly.assertThat(SortOrder.of("canonical", false, true, false))
+        .isSameAs(sortOrder);
+    softly.assertThat(SortOrder.by("canonical").with(Direction.DESC))
+        .isSameAs(sortOrder);
+    softly.assertThat(SortOrder.fromSortOrderText("canonical,desc"))
+        .isSameAs(sortOrder);
+    softly.assertThat(new SortOrder("canonical", false, true, false).intern())
+        .isSameAs(sortOrder);
+
+    SortOrder notInterned = new SortOrder("canonical", false, false, false);
+    softly.assertThat(notInterned)
+        .isNotSameAs(sortOrder.with(CaseHandling.SENSITIVE))
+        .isEqualTo(sortOrder.with(CaseHandling.SENSITIVE));
+    softly.assertThat(SortOrder.of("canonical", false, true, false, "de", null))
+        .isSameAs(sortOrder.with(Locale.GERMAN))
+        .isNotEqualTo(sortOrder);
+    softly.assertThat(sortOrder.hashCode())
+        .isEqualTo(new SortOrder("canonical", false, true, false).hashCode());
+
+    softly.assertThat(new ObjectMapper().writeValueAsString(sortOrder))
+        .doesNotContain("hashCode");
+  }
+
+  /**
+   * Test that concurrently interned sort orders are identical.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testConcurrentIntern(SoftAssertions softly) {
+    List<SortOrder> sortOrders = IntStream.range(0, 10_000)
+        .parallel()
+        .mapToObj(i -> SortOrder.by("concurrent" + (i % 10)).with(Direction.DESC))
+        .toList();
+    softly.assertThat(sortOrders)
+        .allSatisfy(sortOrder -> assertThat(sortOrder)
+            .isSameAs(SortOrder.by(sortOrder.getField()).with(Direction.DESC)));
+    softly.assertThat(sortOrders.stream().map(System::identityHashCode).distinct().count())
+        .isEqualTo(10);
+  }
+
 }
@@ -271,4 +271,37 @@ class SortOrdersTest {
         .isTrue();
   }
 
+  /**
+   * Test that the sort orders text and the hash code are cached.
+   *
+   * @param softly the soft assertions
+   * @throws Exception the exception
+   */
+  @Test
+  void testCachedSortOrdersText(SoftAssertions softly) throws Exception {
+    SortOrders sortOrders = SortOrders.fromSortOrdersText("a,desc;b");
+    String text = sortOrders.getSortOrdersText();
+    softly.assertThat(text)
+        .isEqualTo("a,desc,true,false;b,asc,true,false");
+    softly.assertThat(sortOrders.getSortOrdersText())
+        .isSameAs(text);
+    softly.assertThat(sortOrders.hashCode())
+        .isEqualTo(SortOrders.fromSortOrdersText("a,desc;b").hashCode());
+
+    String json = new ObjectMapper().writeValueAsString(sortOrders);
+    softly.assertThat(json)
+        .doesNotContain("sortOrdersText", "hashCode");
+    softly.assertThat(new ObjectMapper().readValue(json, SortOrders.class))
+        .isEqualTo(sortOrders);
+
+    StringWriter sw = new StringWriter();
+    jaxbContext.createMarshaller().marshal(sortOrders, sw);
+    SortOrders readSortOrders = (SortOrders) jaxbContext.createUnmarshaller()
+        .unmarshal(new StringReader(sw.toString()));
+    softly.assertThat(readSortOrders.getSortOrdersText())
+        .isEqualTo(text);
+    softly.assertThat(readSortOrders)
+        .isEqualTo(sortOrders);
+  }
+
 }
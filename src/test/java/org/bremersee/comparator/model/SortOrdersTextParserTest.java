@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.model;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.model.SortOrder.CollationStrength;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The sort orders text parser tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class SortOrdersTextParserTest {
+
+  private final SortOrdersTextParser parser = SortOrdersTextParser.defaults();
+
+  /**
+   * Test parse sort order.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testParseSortOrder(SoftAssertions softly) {
+    softly.assertThat(parser.parseSortOrder(null))
+        .isEqualTo(new SortOrder(null, true, true, false));
+    softly.assertThat(parser.parseSortOrder(""))
+        .isEqualTo(new SortOrder(null, true, true, false));
+    softly.assertThat(parser.parseSortOrder("  name "))
+        .isEqualTo(new SortOrder("name", true, true, false));
+    softly.assertThat(parser.parseSortOrder("name, DESC , False,TRUE"))
+        .isEqualTo(new SortOrder("name", false, false, true));
+    softly.assertThat(parser.parseSortOrder("name,,,"))
+        .isEqualTo(new SortOrder("name", true, true, false));
+    softly.assertThat(parser.parseSortOrder("name,unknown,unknown,unknown"))
+        .isEqualTo(new SortOrder("name", false, false, false));
+    softly.assertThat(parser.parseSortOrder(",desc"))
+        .isEqualTo(new SortOrder(null, false, true, false));
+    softly.assertThat(parser.parseSortOrder("name,asc,true,false, de-DE ,Secondary"))
+        .isEqualTo(new SortOrder(
+            "name", true, true, false, "de-DE", CollationStrength.SECONDARY));
+    softly.assertThat(parser.parseSortOrder("name,asc,true,false,,identical"))
+        .isEqualTo(new SortOrder("name", true, true, false, null, CollationStrength.IDENTICAL));
+    softly.assertThat(parser.parseSortOrder("name,asc,true,false,de,primary,more"))
+        .as("Unknown strength")
+        .isEqualTo(new SortOrder("name", true, true, false, "de", null));
+    softly.assertThat(parser.parseSortOrder(new StringBuilder("x;name,desc;y"), 2, 11))
+        .isEqualTo(new SortOrder("name", false, true, false));
+  }
+
+  /**
+   * Test parse sort orders.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testParseSortOrders(SoftAssertions softly) {
+    softly.assertThat(parser.parseSortOrders(null))
+        .isEqualTo(new SortOrders());
+    softly.assertThat(parser.parseSortOrders(";;"))
+        .isEqualTo(new SortOrders());
+    softly.assertThat(parser.parseSortOrders(";a,desc;;b,asc,false;c;"))
+        .isEqualTo(SortOrders.by(
+            new SortOrder("a", false, true, false),
+            new SortOrder("b", true, false, false),
+            new SortOrder("c", true, true, false)));
+  }
+
+  /**
+   * Test parse with custom properties.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testParseWithProperties(SoftAssertions softly) {
+    SortOrdersTextProperties properties = SortOrdersTextProperties.builder()
+        .sortOrderSeparator("|&")
+        .sortOrderArgsSeparator("::")
+        .ascValue("A")
+        .descValue("D")
+        .caseInsensitiveValue("ci")
+        .caseSensitiveValue("cs")
+        .nullIsFirstValue("\u00dfirst")
+        .nullIsLastValue("last")
+        .build();
+    SortOrdersTextParser customParser = new SortOrdersTextParser(properties);
+    softly.assertThat(customParser.parseSortOrders("a::d::CS::\u00dfIRST|b:c::a&&c::x::ci"))
+        .as("Every character of the sort order separator separates sort orders.")
+        .isEqualTo(SortOrders.by(
+            new SortOrder("a", false, false, true),
+            new SortOrder("b:c", true, true, false),
+            new SortOrder("c", false, true, false)));
+    softly.assertThat(new SortOrdersTextParser(null).parseSortOrder("a,desc"))
+        .isEqualTo(new SortOrder("a", false, true, false));
+
+    SortOrders sortOrders = SortOrders.by(
+        new SortOrder("a", false, false, true, "fr", CollationStrength.TERTIARY),
+        new SortOrder("b.c", true, true, false));
+    softly.assertThat(customParser.parseSortOrders(sortOrders.getSortOrdersText(properties)))
+        .isEqualTo(sortOrders);
+  }
+
+}
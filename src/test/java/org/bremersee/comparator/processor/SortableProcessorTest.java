@@ -0,0 +1,326 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.ComparatorBuilder;
+import org.bremersee.comparator.annotation.SortableAccessors;
+import org.bremersee.comparator.annotation.SortableAccessorsRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The sortable processor tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class SortableProcessorTest {
+
+  private static final String ITEM_SOURCE = "package sample;\n"
+      + "@org.bremersee.comparator.annotation.Sortable({\"name\", \"age\", \"address.city\"})\n"
+      + "public class Item {\n"
+      + "  final String name;\n"
+      + "  final int age;\n"
+      + "  final Address address;\n"
+      + "  public Item(String name, int age, String city) {\n"
+      + "    this.name = name;\n"
+      + "    this.age = age;\n"
+      + "    this.address = city == null ? null : new Address(city);\n"
+      + "  }\n"
+      + "  public String getName() {\n"
+      + "    return name;\n"
+      + "  }\n"
+      + "  public Address getAddress() {\n"
+      + "    return address;\n"
+      + "  }\n"
+      + "  public static class Address {\n"
+      + "    final String city;\n"
+      + "    Address(String city) {\n"
+      + "      this.city = city;\n"
+      + "    }\n"
+      + "  }\n"
+      + "}\n";
+
+  private static final String TRANSFORMED_SOURCE = "package sample;\n"
+      + "@org.bremersee.comparator.annotation.Sortable({\"name\", \"rank\", \"rank.\", "
+      + "\"code\"})\n"
+      + "public class Transformed {\n"
+      + "  private final String name;\n"
+      + "  public final int rank;\n"
+      + "  public Transformed(String name, int rank) {\n"
+      + "    this.name = name;\n"
+      + "    this.rank = rank;\n"
+      + "  }\n"
+      + "  public String getName() {\n"
+      + "    return name.substring(1);\n"
+      + "  }\n"
+      + "  private String code() {\n"
+      + "    return name;\n"
+      + "  }\n"
+      + "  public String getCode() {\n"
+      + "    return name.substring(1);\n"
+      + "  }\n"
+      + "}\n";
+
+  private static final String BROKEN_SOURCE = "package sample;\n"
+      + "@org.bremersee.comparator.annotation.Sortable\n"
+      + "public class Broken {\n"
+      + "}\n";
+
+  private static final String BROKEN_ACCESSORS_SOURCE = "package sample;\n"
+      + "public final class BrokenSortableAccessors\n"
+      + "    implements org.bremersee.comparator.annotation.SortableAccessors<Broken> {\n"
+      + "  private static final int FAILURE = Integer.parseInt(\"broken\");\n"
+      + "  public Class<Broken> getType() {\n"
+      + "    return Broken.class;\n"
+      + "  }\n"
+      + "  public java.util.Map<String, java.util.function.Function<Broken, Object>> "
+      + "getAccessors() {\n"
+      + "    return java.util.Map.of();\n"
+      + "  }\n"
+      + "  public java.util.Map<String, Class<?>> getValueTypes() {\n"
+      + "    return java.util.Map.of();\n"
+      + "  }\n"
+      + "}\n";
+
+  private static final String ALL_SOURCE = "package sample;\n"
+      + "@org.bremersee.comparator.annotation.Sortable\n"
+      + "public class All {\n"
+      + "  public long number;\n"
+      + "  private String hidden;\n"
+      + "  public boolean isActive() {\n"
+      + "    return true;\n"
+      + "  }\n"
+      + "  private String getSecret() {\n"
+      + "    return hidden;\n"
+      + "  }\n"
+      + "}\n";
+
+  private static final String INVALID_SOURCE = "package sample;\n"
+      + "@org.bremersee.comparator.annotation.Sortable({\"name.foo\"})\n"
+      + "public class Invalid {\n"
+      + "  public int name;\n"
+      + "}\n";
+
+  @TempDir
+  Path tempDir;
+
+  /**
+   * Test generated accessors.
+   *
+   * @param softly the soft assertions
+   * @throws Exception if compiling or loading fails
+   */
+  @Test
+  void testGeneratedAccessors(SoftAssertions softly) throws Exception {
+    assertThat(compile(Map.of("sample/Item.java", ITEM_SOURCE, "sample/All.java", ALL_SOURCE)))
+        .isEmpty();
+    try (URLClassLoader classLoader = newClassLoader()) {
+      Class<?> itemClass = classLoader.loadClass("sample.Item");
+      Object item = itemClass.getConstructor(String.class, int.class, String.class)
+          .newInstance("Anna", 42, "Berlin");
+
+      SortableAccessors<?> accessors = SortableAccessorsRegistry.find(itemClass).orElseThrow();
+      softly.assertThat(accessors.getClass().getName())
+          .isEqualTo("sample.ItemSortableAccessors");
+      softly.assertThat(accessors.getType())
+          .isEqualTo(itemClass);
+      softly.assertThat(accessors.getAccessors())
+          .containsOnlyKeys("name", "age", "address.city");
+      softly.assertThat(apply(accessors, "name", item))
+          .isEqualTo("Anna");
+      softly.assertThat(apply(accessors, "age", item))
+          .isEqualTo(42);
+      softly.assertThat(apply(accessors, "address.city", item))
+          .isEqualTo("Berlin");
+      softly.assertThat(apply(accessors, "address.city", itemClass
+              .getConstructor(String.class, int.class, String.class)
+              .newInstance("Anna", 42, null)))
+          .isNull();
+      softly.assertThat(accessors.getValueTypes())
+          .isEqualTo(Map.of("name", String.class, "age", Integer.class,
+              "address.city", String.class));
+
+      Class<?> allClass = classLoader.loadClass("sample.All");
+      softly.assertThat(SortableAccessorsRegistry.find(allClass))
+          .hasValueSatisfying(all -> assertThat(all.getAccessors())
+              .containsOnlyKeys("number", "active"));
+    }
+  }
+
+  /**
+   * Test that a comparator, that is built for an annotated type, uses the generated accessors.
+   *
+   * @throws Exception if compiling or loading fails
+   */
+  @Test
+  void testBuildComparator() throws Exception {
+    assertThat(compile(Map.of("sample/Item.java", ITEM_SOURCE)))
+        .isEmpty();
+    try (URLClassLoader classLoader = newClassLoader()) {
+      Class<?> itemClass = classLoader.loadClass("sample.Item");
+      List<Object> items = new ArrayList<>();
+      items.add(itemClass.getConstructor(String.class, int.class, String.class)
+          .newInstance("b", 2, "Berlin"));
+      items.add(itemClass.getConstructor(String.class, int.class, String.class)
+          .newInstance("a", 3, null));
+      items.add(itemClass.getConstructor(String.class, int.class, String.class)
+          .newInstance("c", 1, "Aachen"));
+
+      List<Object> sorted = sort(items, itemClass, ComparatorBuilder.newInstance()
+          .add("address.city", true, true, false));
+      assertThat(sorted)
+          .extracting(item -> apply(SortableAccessorsRegistry.find(itemClass).orElseThrow(),
+              "name", item))
+          .containsExactly("c", "b", "a");
+    }
+  }
+
+  /**
+   * Test that no accessor is generated for a private field, whose getter returns another value, so
+   * that the comparator of the type reads the field like the default value extractor.
+   *
+   * @throws Exception if compiling or loading fails
+   */
+  @Test
+  void testInaccessibleField() throws Exception {
+    assertThat(compile(Map.of("sample/Transformed.java", TRANSFORMED_SOURCE)))
+        .contains("Field path 'name' is not generated")
+        .contains("Field path 'code' is not generated")
+        .doesNotContain("Field path 'rank");
+    try (URLClassLoader classLoader = newClassLoader()) {
+      Class<?> transformedClass = classLoader.loadClass("sample.Transformed");
+      assertThat(SortableAccessorsRegistry.find(transformedClass))
+          .hasValueSatisfying(accessors -> assertThat(accessors.getAccessors())
+              .containsOnlyKeys("rank"));
+      List<Object> expected = new ArrayList<>();
+      expected.add(transformedClass.getConstructor(String.class, int.class)
+          .newInstance("ab", 1));
+      expected.add(transformedClass.getConstructor(String.class, int.class)
+          .newInstance("ba", 2));
+      expected.add(transformedClass.getConstructor(String.class, int.class)
+          .newInstance("ca", 3));
+      List<Object> actual = sort(expected, transformedClass, ComparatorBuilder.newInstance()
+          .add("code", false, true, false)
+          .add("name", true, true, false));
+      expected.sort(ComparatorBuilder.newInstance()
+          .add("code", false, true, false)
+          .add("name", true, true, false)
+          .build());
+      assertThat(actual)
+          .containsExactlyElementsOf(expected);
+    }
+  }
+
+  /**
+   * Test that accessors, that cannot be initialized, are not used.
+   *
+   * @throws Exception if compiling or loading fails
+   */
+  @Test
+  void testBrokenAccessors() throws Exception {
+    assertThat(compile(Map.of(
+        "sample/Broken.java", BROKEN_SOURCE,
+        "sample/BrokenSortableAccessors.java", BROKEN_ACCESSORS_SOURCE), false))
+        .isEmpty();
+    try (URLClassLoader classLoader = newClassLoader()) {
+      Class<?> brokenClass = classLoader.loadClass("sample.Broken");
+      assertThat(SortableAccessorsRegistry.find(brokenClass))
+          .isEmpty();
+    }
+  }
+
+  /**
+   * Test invalid path.
+   *
+   * @throws IOException if compiling fails
+   */
+  @Test
+  void testInvalidPath() throws IOException {
+    assertThat(compile(Map.of("sample/Invalid.java", INVALID_SOURCE)))
+        .contains("name.foo");
+  }
+
+  private static <T> Object apply(SortableAccessors<T> accessors, String path, Object obj) {
+    return accessors.getAccessors().get(path).apply(accessors.getType().cast(obj));
+  }
+
+  private static <T> List<Object> sort(List<?> items, Class<T> type, ComparatorBuilder builder) {
+    List<T> sorted = new ArrayList<>();
+    items.forEach(item -> sorted.add(type.cast(item)));
+    sorted.sort(builder.build(type));
+    return new ArrayList<>(sorted);
+  }
+
+  private URLClassLoader newClassLoader() throws IOException {
+    return new URLClassLoader(
+        new URL[]{tempDir.resolve("classes").toUri().toURL()},
+        getClass().getClassLoader());
+  }
+
+  private String compile(Map<String, String> sources) throws IOException {
+    return compile(sources, true);
+  }
+
+  private String compile(Map<String, String> sources, boolean processing) throws IOException {
+    Path sourceDir = Files.createDirectories(tempDir.resolve("sources"));
+    Path classesDir = Files.createDirectories(tempDir.resolve("classes"));
+    List<Path> files = new ArrayList<>();
+    for (Map.Entry<String, String> source : sources.entrySet()) {
+      Path file = sourceDir.resolve(source.getKey());
+      Files.createDirectories(file.getParent());
+      files.add(Files.writeString(file, source.getValue()));
+    }
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    StringWriter errors = new StringWriter();
+    try (StandardJavaFileManager fileManager = compiler
+        .getStandardFileManager(null, null, null)) {
+      CompilationTask task = compiler.getTask(
+          errors,
+          fileManager,
+          null,
+          List.of(
+              "-classpath", System.getProperty("java.class.path"),
+              "-d", classesDir.toString(),
+              "-implicit:class"),
+          null,
+          fileManager.getJavaFileObjectsFromPaths(files));
+      task.setProcessors(processing ? List.of(new SortableProcessor()) : List.of());
+      task.call();
+    }
+    return errors.toString();
+  }
+
+}
@@ -87,4 +87,28 @@ class SortOrderConverterTest {
     softly.assertThat(actual).isEqualTo(expected);
   }
 
-}
\ No newline at end of file
+  /**
+   * Convert with cache.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void convertWithCache(SoftAssertions softly) {
+    SortOrderConverter converter = new SortOrderConverter(null, 2);
+    SortOrder first = converter.convert("field0,desc");
+    softly.assertThat(first).isEqualTo(new SortOrder("field0", false, true, false));
+    softly.assertThat(converter.convert("field0,desc")).isSameAs(first);
+    softly.assertThat(converter.convert("field0,desc")).isSameAs(first);
+    softly.assertThat(converter.convert("field1")).isEqualTo(SortOrder.by("field1"));
+    softly.assertThat(converter.getCacheStatistics())
+        .hasValueSatisfying(statistics -> {
+          assertThat(statistics.getHitCount()).isEqualTo(1L);
+          assertThat(statistics.getMissCount()).isEqualTo(3L);
+          assertThat(statistics.getSize())
+              .as("Only the text, that was converted twice, is cached.")
+              .isEqualTo(1);
+        });
+    softly.assertThat(new SortOrderConverter().getCacheStatistics()).isEmpty();
+  }
+
+}
@@ -99,4 +99,34 @@ class SortOrdersConverterTest {
         .containsExactlyElementsOf(expected);
   }
 
-}
\ No newline at end of file
+  /**
+   * Convert with cache.
+   */
+  @Test
+  void convertWithCache() {
+    SortOrdersConverter converter = new SortOrdersConverter(
+        SortOrdersTextProperties.defaults(), 1);
+    SortOrders first = converter.convert("field0,desc;field1");
+    SortOrders cached = converter.convert("field0,desc;field1");
+    assertThat(cached)
+        .as("The text is cached, when it is converted the second time.")
+        .isNotSameAs(first)
+        .isEqualTo(first);
+    assertThat(converter.convert("field0,desc;field1"))
+        .isSameAs(cached);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(converter.convert("field" + i))
+          .isEqualTo(SortOrders.by(SortOrder.by("field" + i)));
+    }
+    assertThat(converter.convert("field0,desc;field1"))
+        .as("Texts, that are converted once, do not evict the cached entry.")
+        .isSameAs(cached);
+    assertThat(converter.getCacheStatistics())
+        .hasValueSatisfying(statistics -> {
+          assertThat(statistics.getHitCount()).isEqualTo(2L);
+          assertThat(statistics.getEvictionCount()).isZero();
+          assertThat(statistics.getSize()).isEqualTo(1);
+        });
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.spring.page;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.comparator.ComparatorBuilder;
+import org.bremersee.comparator.model.SortOrders;
+import org.bremersee.comparator.testmodel.Person;
+import org.bremersee.comparator.testmodel.RandomPersons;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * The page sorter tests.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class PageSorterTest {
+
+  /**
+   * Test sorted page.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testSortedPage(SoftAssertions softly) {
+    List<Person> persons = RandomPersons.create(500, 13L);
+    List<Person> sorted = new ArrayList<>(persons);
+    sorted.sort(ComparatorBuilder.newInstance()
+        .addAll(SortOrders.fromSortOrdersText("lastName,desc,true,false;age,asc,true,false"))
+        .build());
+
+    Pageable pageable = PageRequest.of(3, 20, Sort.by(
+        new Sort.Order(Direction.DESC, "lastName").ignoreCase().nullsLast(),
+        new Sort.Order(Direction.ASC, "age").nullsLast()));
+    Page<Person> page = PageSorter.page(persons, pageable);
+    softly.assertThat(page.getContent())
+        .containsExactlyElementsOf(sorted.subList(60, 80));
+    softly.assertThat(page.getTotalElements())
+        .isEqualTo(500L);
+    softly.assertThat(page.getNumber())
+        .isEqualTo(3);
+    softly.assertThat(page.getTotalPages())
+        .isEqualTo(25);
+  }
+
+  /**
+   * Test unsorted and unpaged.
+   *
+   * @param softly the soft assertions
+   */
+  @Test
+  void testUnsortedAndUnpaged(SoftAssertions softly) {
+    List<Integer> list = List.of(5, 3, 4, 1, 2);
+    softly.assertThat(PageSorter.page(list, PageRequest.of(1, 2)).getContent())
+        .containsExactly(4, 1);
+    softly.assertThat(PageSorter.page(list, PageRequest.of(2, 2)).getContent())
+        .containsExactly(2);
+    softly.assertThat(PageSorter.page(list, null).getContent())
+        .containsExactly(5, 3, 4, 1, 2);
+    softly.assertThat(PageSorter.page(list, Pageable.unpaged()).getTotalElements())
+        .isEqualTo(5L);
+    softly.assertThat(PageSorter.page(null, PageRequest.of(0, 2)).getContent())
+        .isEmpty();
+    softly.assertThat(PageSorter.page(list, PageRequest.of(0, Integer.MAX_VALUE)).getContent())
+        .containsExactly(5, 3, 4, 1, 2);
+    softly.assertThat(PageSorter.page(list, PageRequest.of(1, Integer.MAX_VALUE)).getContent())
+        .isEmpty();
+    softly.assertThat(PageSorter.page(list, PageRequest.of(0, 2, Sort.by("value")),
+            (obj, field) -> obj).getContent())
+        .containsExactly(1, 2);
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.testmodel;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The employee test object, a subclass of person.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class Employee extends Person {
+
+  private final String company;
+
+  /**
+   * Instantiates a new employee.
+   *
+   * @param lastName the last name
+   * @param firstName the first name
+   * @param age the age
+   * @param score the score
+   * @param address the address
+   * @param company the company
+   */
+  public Employee(
+      String lastName,
+      String firstName,
+      int age,
+      Double score,
+      Address address,
+      String company) {
+    super(lastName, firstName, age, score, address);
+    this.company = company;
+  }
+
+}
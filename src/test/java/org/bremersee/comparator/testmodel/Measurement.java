@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.testmodel;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A measurement with values of primitive and temporal types.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class Measurement {
+
+  private final long id;
+
+  private final short level;
+
+  private final byte grade;
+
+  private final char code;
+
+  private final boolean valid;
+
+  private final float ratio;
+
+  private final double value;
+
+  private final Unit unit;
+
+  private final Instant time;
+
+  private final LocalDate day;
+
+  private final UUID uuid;
+
+  /**
+   * Gets the total (a getter without a field).
+   *
+   * @return the total
+   */
+  public int getTotal() {
+    return level + grade;
+  }
+
+  /**
+   * Creates a list of random measurements.
+   *
+   * @param size the size of the list
+   * @param seed the seed of the random generator
+   * @return the list of measurements
+   */
+  public static List<Measurement> create(int size, long seed) {
+    Random random = new Random(seed);
+    Instant now = Instant.parse("2022-06-01T12:00:00Z");
+    double[] values = {Double.NaN, -0.0, 0.0, 1.5, -1.5, Double.NEGATIVE_INFINITY};
+    List<Measurement> measurements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      measurements.add(new Measurement(
+          random.nextInt(20) - 10L,
+          (short) (random.nextInt(2000) - 1000),
+          (byte) (random.nextInt(200) - 100),
+          (char) ('a' + random.nextInt(26)),
+          random.nextBoolean(),
+          random.nextInt(10) - 5.5f,
+          values[random.nextInt(values.length)],
+          random.nextInt(5) == 0 ? null : Unit.values()[random.nextInt(Unit.values().length)],
+          random.nextInt(5) == 0 ? null : now.plusNanos(random.nextInt(3) * 500_000_000L),
+          random.nextInt(5) == 0 ? null : LocalDate.of(2022, 1, 1).plusDays(random.nextInt(5)),
+          random.nextInt(5) == 0 ? null : new UUID(random.nextInt(3) - 1, random.nextInt(3) - 1)));
+    }
+    return measurements;
+  }
+
+  /**
+   * The unit.
+   */
+  public enum Unit {
+
+    /**
+     * Meter.
+     */
+    METER,
+
+    /**
+     * Second.
+     */
+    SECOND {
+      @Override
+      public String toString() {
+        return "s";
+      }
+    },
+
+    /**
+     * Kilogram.
+     */
+    KILOGRAM
+  }
+
+}
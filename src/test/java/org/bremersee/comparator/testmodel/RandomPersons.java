@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.comparator.testmodel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates random persons for the tests. Some values are {@code null} and many values are equal, so
+ * that all branches of the comparators are used.
+ *
+ * @author Christian Bremer
+ */
+public abstract class RandomPersons {
+
+  private static final String[] NAMES = {
+      "Anna", "anna", "Bob", "bob", "Carl", "Doris", "doris", "Emil", "Frida", null
+  };
+
+  private static final String[] CITIES = {
+      "Berlin", "berlin", "Hamburg", "Munich", "Bremen", null
+  };
+
+  private RandomPersons() {
+  }
+
+  /**
+   * Creates a list of random persons.
+   *
+   * @param size the size of the list
+   * @param seed the seed of the random generator
+   * @return the list of persons
+   */
+  public static List<Person> create(int size, long seed) {
+    Random random = new Random(seed);
+    List<Person> persons = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Address address = random.nextInt(10) == 0
+          ? null
+          : new Address(CITIES[random.nextInt(CITIES.length)], random.nextInt(5));
+      String lastName = NAMES[random.nextInt(NAMES.length)];
+      String firstName = NAMES[random.nextInt(NAMES.length)];
+      int age = random.nextInt(50) - 10;
+      Double score = random.nextInt(8) == 0 ? null : (random.nextInt(20) - 10) / 2.0;
+      if (random.nextInt(4) == 0) {
+        persons.add(new Employee(lastName, firstName, age, score, address, "Company" + i % 3));
+      } else {
+        persons.add(new Person(lastName, firstName, age, score, address));
+      }
+    }
+    return persons;
+  }
+
+}